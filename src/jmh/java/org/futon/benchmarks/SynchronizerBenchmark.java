@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.benchmarks;
+
+import org.futon.Testable;
+import org.futon.simulation.LatencyDistribution;
+import org.futon.simulation.SimulatedNode;
+import org.futon.simulation.SimulatedPlatform;
+import org.futon.sync.SyncSettings;
+import org.futon.sync.SyncTarget;
+import org.futon.sync.Synchronizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the synchronization engine alone, without any widget around it, with the
+ * retries signalled by a {@code null} locate or by an exception.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SynchronizerBenchmark {
+    @Param({"0", "1", "10"})
+    public int retries;
+
+    @Param({"0"})
+    public long locateLatency;
+
+    @Param({"0.0"})
+    public double failureRate;
+
+    private Synchronizer synchronizer;
+    private SyncTarget target;
+    private SyncTarget throwingTarget;
+    private SimulatedNode node;
+
+    @Setup
+    public void setUp() {
+        final SimulatedPlatform platform = SimulatedPlatform.builder()
+                .latency(LatencyDistribution.fixed(locateLatency))
+                .failureRate(failureRate)
+                .seed(42L)
+                .build();
+        node = platform.add("element");
+        synchronizer = Synchronizer.builder(SyncSettings.inherited()
+                                                    .withTimeout(30000L)
+                                                    .withMaxRetries(100)
+                                                    .withReloadRange(10))
+                .waiter(() -> {
+                    // Retry immediately
+                })
+                .build();
+        target = new SyncTarget() {
+            @Override
+            public Testable locate() {
+                return platform.tryLocate("element");
+            }
+
+            @Override
+            public void act(Testable testable) {
+                platform.click(testable);
+            }
+        };
+        throwingTarget = new SyncTarget() {
+            @Override
+            public Testable locate() {
+                return platform.locate("element");
+            }
+
+            @Override
+            public void act(Testable testable) {
+                platform.click(testable);
+            }
+        };
+    }
+
+    /**
+     * Retries signalled by a {@code null} locate.
+     *
+     * @return The testable object
+     */
+    @Benchmark
+    public Testable run() {
+        node.appearAfterLocates(retries);
+        return synchronizer.run(target);
+    }
+
+    /**
+     * Retries signalled by an exception.
+     *
+     * @return The testable object
+     */
+    @Benchmark
+    public Testable runThrowing() {
+        node.appearAfterLocates(retries);
+        return synchronizer.run(throwingTarget);
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.benchmarks;
+
+import org.futon.simulation.LatencyDistribution;
+import org.futon.simulation.SimulatedAnchor;
+import org.futon.simulation.SimulatedButton;
+import org.futon.simulation.SimulatedCheck;
+import org.futon.simulation.SimulatedCheckbox;
+import org.futon.simulation.SimulatedClosableSection;
+import org.futon.simulation.SimulatedMessage;
+import org.futon.simulation.SimulatedNode;
+import org.futon.simulation.SimulatedPlatform;
+import org.futon.simulation.SimulatedRadio;
+import org.futon.simulation.SimulatedSection;
+import org.futon.simulation.SimulatedSelect;
+import org.futon.simulation.SimulatedSelectJs;
+import org.futon.simulation.SimulatedTabbedSection;
+import org.futon.simulation.SimulatedTable;
+import org.futon.simulation.SimulatedText;
+import org.futon.simulation.SimulatedTextArea;
+import org.futon.sync.ExecutionContext;
+import org.futon.utils.Waiter;
+import org.futon.widgets.Widget;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>Throughput and latency of an action on every type of widget, against the
+ *    {@link SimulatedPlatform}. The actions are executed inside an execution context with
+ *    a waiter that never sleeps, so that the results measure the overhead of the
+ *    framework and not the pauses between the attempts.
+ * </p>
+ * <p>Parameters:</p>
+ * <ul>
+ *     <li>{@code retries}: failed locates before a widget is found;</li>
+ *     <li>{@code locateLatency}: latency of a call to the platform, in microseconds;</li>
+ *     <li>{@code failureRate}: probability that an action fails and is retried.</li>
+ * </ul>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WidgetBenchmark {
+    /**
+     * Waiter that never sleeps.
+     */
+    private static final Waiter NO_WAIT = new Waiter() {
+        @Override
+        public void sleep() {
+            // Retry immediately
+        }
+    };
+
+    @Param({"0", "3"})
+    public int retries;
+
+    @Param({"0", "20"})
+    public long locateLatency;
+
+    @Param({"0.0", "0.05"})
+    public double failureRate;
+
+    private SimulatedPlatform platform;
+    private ExecutionContext context;
+    private SimulatedAnchor anchor;
+    private SimulatedButton button;
+    private SimulatedCheck check;
+    private SimulatedCheckbox checkbox;
+    private SimulatedRadio radio;
+    private SimulatedMessage message;
+    private SimulatedText text;
+    private SimulatedTextArea textArea;
+    private SimulatedSelect select;
+    private SimulatedSelectJs selectJs;
+    private SimulatedSection section;
+    private SimulatedTabbedSection tabbedSection;
+    private SimulatedClosableSection closableSection;
+    private SimulatedTable table;
+
+    @Setup
+    public void setUp() {
+        platform = SimulatedPlatform.builder()
+                .latency(LatencyDistribution.fixed(locateLatency))
+                .failureRate(failureRate)
+                .seed(42L)
+                .build();
+        context = new ExecutionContext(0L, NO_WAIT, null);
+        SimulatedNode form = platform.add("form");
+        SimulatedSection container = new SimulatedSection(platform, null, "form");
+        for (String id : new String[] {"anchor", "button", "check", "checkbox", "radio",
+                                       "message", "text", "textArea", "select", "selectJs",
+                                       "section", "tabbedSection", "closableSection"}) {
+            form.add(id);
+        }
+        String[][] cells = new String[10][5];
+        for (int i = 0; i < cells.length; i++) {
+            for (int j = 0; j < cells[i].length; j++) {
+                cells[i][j] = i + ":" + j;
+            }
+        }
+        form.add("table").cells(cells);
+        anchor = new SimulatedAnchor(platform, container, "anchor");
+        button = new SimulatedButton(platform, container, "button");
+        check = new SimulatedCheck(platform, container, "check");
+        checkbox = new SimulatedCheckbox(platform, container, "checkbox");
+        radio = new SimulatedRadio(platform, container, "radio");
+        message = new SimulatedMessage(platform, container, "message");
+        text = new SimulatedText(platform, container, "text");
+        textArea = new SimulatedTextArea(platform, container, "textArea");
+        select = new SimulatedSelect(platform, container, "select");
+        selectJs = new SimulatedSelectJs(platform, container, "selectJs");
+        section = new SimulatedSection(platform, container, "section");
+        tabbedSection = new SimulatedTabbedSection(platform, container, "tabbedSection");
+        closableSection = new SimulatedClosableSection(platform, container, "closableSection");
+        table = new SimulatedTable(platform, container, "table");
+    }
+
+    /**
+     * Executes an action on a widget inside the benchmark context. The widget is
+     * found only after {@code retries} failed locates.
+     *
+     * @param widget The widget
+     * @param action The action
+     * @param <T> The type of the result
+     * @return The result of the action
+     */
+    private <T> T run(Widget widget, Supplier<T> action) {
+        platform.getNode(widget.getLocator()).appearAfterLocates(retries);
+        return context.execute(action);
+    }
+
+    @Benchmark
+    public boolean anchorExists() {
+        return run(anchor, () -> anchor.exists());
+    }
+
+    @Benchmark
+    public Object anchorClick() {
+        return run(anchor, () -> {
+            anchor.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object buttonClick() {
+        return run(button, () -> {
+            button.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public String buttonGetValue() {
+        return run(button, () -> button.getValue());
+    }
+
+    @Benchmark
+    public Object checkClick() {
+        return run(check, () -> {
+            check.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object checkboxClick() {
+        return run(checkbox, () -> {
+            checkbox.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object radioClick() {
+        return run(radio, () -> {
+            radio.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public String messageGetValue() {
+        return run(message, () -> message.getValue());
+    }
+
+    @Benchmark
+    public Object textSetValue() {
+        return run(text, () -> {
+            text.setValue("value");
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object textAreaSetValue() {
+        return run(textArea, () -> {
+            textArea.setValue("value");
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object selectSetValue() {
+        return run(select, () -> {
+            select.setValue("value");
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object selectJsSetValue() {
+        return run(selectJs, () -> {
+            selectJs.setValue("value");
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object sectionClick() {
+        return run(section, () -> {
+            section.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object tabbedSectionClick() {
+        return run(tabbedSection, () -> {
+            tabbedSection.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public Object closableSectionClick() {
+        return run(closableSection, () -> {
+            closableSection.click();
+            return null;
+        });
+    }
+
+    @Benchmark
+    public String tableGetCellValue() {
+        return run(table, () -> table.getCellValue(3, 2));
+    }
+}
@@ -32,7 +32,9 @@ package org.futon.actions;
  */
 public interface Reloadable {
     /**
-     * Reloads the widget acquiring possible page's changes.
+     * Reloads the widget acquiring possible page's changes. Reloading a container
+     * invalidates the testable objects cached by the widgets inside it. Containers
+     * can defer the reload on the platform until one of their widgets is accessed.
      */
     public void reload();
 }
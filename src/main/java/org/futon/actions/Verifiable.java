@@ -23,8 +23,14 @@
  */
 package org.futon.actions;
 
+import org.futon.utils.FProperties;
+
 /**
- * Add the possibility to check if a widget exists.
+ * <p>Add the possibility to check if a widget exists.</p>
+ * <p>A check waits for the widget using a time budget shorter than the one of an
+ *    action, since a negative check always spends all of it. A probe does not wait
+ *    at all, and the absence of a widget can be waited for explicitly.
+ * </p>
  *
  * @author Riccardo Cardin
  * @version 1.0
@@ -32,9 +38,50 @@ package org.futon.actions;
  */
 public interface Verifiable {
     /**
-     * Return {@code true} if the widget exists.
+     * Return {@code true} if the widget exists, waiting for it at most the time budget
+     * of the checks of existence.
      *
      * @return {@code true} if the widget exists
      */
     public boolean exists();
+
+    /**
+     * Return {@code true} if the widget exists now, looking for it only once. By
+     * default, #exists is called: implementations able to look for the widget without
+     * waiting should override this method.
+     *
+     * @return {@code true} if the widget exists
+     */
+    public default boolean isPresent() {
+        return exists();
+    }
+
+    /**
+     * Waits until the widget does not exist anymore. By default, #isPresent is polled
+     * every {@code org.futon.waiter.base.delay} milliseconds, at most for the time
+     * budget of the checks of existence. If the thread is interrupted, the wait stops
+     * and the interrupted status is kept.
+     *
+     * @return {@code true} if the widget does not exist, {@code false} if it still
+     *         exists when the time budget is over
+     */
+    public default boolean waitUntilAbsent() {
+        FProperties props = FProperties.INSTANCE;
+        long budget = props.getLong(FProperties.Property.EXISTS_TIMEOUT);
+        long poll = Math.max(1L, props.getLong(FProperties.Property.WAITER_BASE_DELAY));
+        long deadline = System.nanoTime() + budget * 1000000L;
+        while (isPresent()) {
+            long remaining = (deadline - System.nanoTime()) / 1000000L;
+            if (remaining <= 0L) {
+                return false;
+            }
+            try {
+                Thread.sleep(Math.min(poll, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
 }
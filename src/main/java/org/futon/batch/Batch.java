@@ -0,0 +1,218 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.batch;
+
+import org.futon.actions.Clickable;
+import org.futon.widgets.EditableWidget;
+import org.futon.widgets.Widget;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * <p>Queues actions on many widgets, for example to fill a form, and executes them
+ *    together. If a {@link PipelinedPlatform} is given, the supported actions are
+ *    sent to the platform in a single call, avoiding a round trip for each field.
+ *    The actions failed inside the pipeline, and the ones not supported by it, are
+ *    executed by the widgets on their own, with their usual synchronization, before
+ *    the following actions.
+ * </p>
+ * <p>Actions are executed in the order in which they were queued. A failed action
+ *    does not stop the following ones: the outcome of every action is reported in
+ *    the {@link BatchResult}.
+ * </p>
+ * <pre>
+ *     BatchResult result = new Batch(platform)
+ *             .setValue(name, "Riccardo")
+ *             .setValue(country, "Italy")
+ *             .click(privacy)
+ *             .flush();
+ * </pre>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Batch {
+    /**
+     * Platform executing the pipeline (it can be {@code null}).
+     */
+    private final PipelinedPlatform platform;
+    /**
+     * Queued actions.
+     */
+    private final List<BatchOperation> operations = new ArrayList<BatchOperation>();
+
+    /**
+     * Creates a batch whose actions are executed by the widgets on their own.
+     */
+    public Batch() {
+        this(null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param platform Platform executing the pipeline (it can be {@code null})
+     */
+    public Batch(PipelinedPlatform platform) {
+        this.platform = platform;
+    }
+
+    /**
+     * Queues the setting of a {@code value} on a {@code widget}.
+     *
+     * @param widget The widget
+     * @param value The value to set
+     * @return The batch
+     */
+    public Batch setValue(EditableWidget widget, String value) {
+        operations.add(BatchOperation.setValue(widget, value));
+        return this;
+    }
+
+    /**
+     * Queues a click on a {@code widget}.
+     *
+     * @param widget The widget
+     * @param <W> The type of the widget
+     * @return The batch
+     */
+    public <W extends Widget & Clickable> Batch click(W widget) {
+        operations.add(BatchOperation.click(widget));
+        return this;
+    }
+
+    /**
+     * Returns the number of queued actions.
+     *
+     * @return The number of queued actions
+     */
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * Executes the queued actions, emptying the batch. Every run of consecutive actions
+     * supported by the platform is executed inside a single pipeline, that stops at the
+     * first failed action. The failed action is then executed on its own, and the rest
+     * of the run is pipelined again. If the whole pipeline fails, every action of the
+     * run is executed on its own.
+     *
+     * @return The outcome of every action
+     *
+     * @throws CancellationException If the execution was cancelled.
+     */
+    public BatchResult flush() {
+        List<BatchOperation> queued = new ArrayList<BatchOperation>(operations);
+        operations.clear();
+        List<FieldResult> results = new ArrayList<FieldResult>(queued.size());
+        int start = 0;
+        while (start < queued.size()) {
+            int end = start;
+            while (end < queued.size() && isPipelineable(queued.get(end))) {
+                end++;
+            }
+            if (end == start) {
+                BatchOperation operation = queued.get(start);
+                results.add(new FieldResult(operation, applyAlone(operation), false));
+                start++;
+                continue;
+            }
+            List<BatchOperation> run = queued.subList(start, end);
+            RuntimeException[] failures = pipeline(run);
+            if (failures == null) {
+                // The whole pipeline failed: every action is executed on its own
+                for (BatchOperation operation : run) {
+                    results.add(new FieldResult(operation, applyAlone(operation), false));
+                }
+                start = end;
+                continue;
+            }
+            int done = 0;
+            while (done < run.size() && failures[done] == null) {
+                results.add(new FieldResult(run.get(done), null, true));
+                done++;
+            }
+            if (done < run.size()) {
+                BatchOperation operation = run.get(done);
+                results.add(new FieldResult(operation, applyAlone(operation), false));
+                done++;
+            }
+            start += done;
+        }
+        return new BatchResult(results);
+    }
+
+    /**
+     * Returns {@code true} if the {@code operation} can be executed inside the pipeline.
+     *
+     * @param operation An action
+     * @return {@code true} if a platform is given and it supports the action
+     */
+    private boolean isPipelineable(BatchOperation operation) {
+        return platform != null && platform.supports(operation);
+    }
+
+    /**
+     * Executes a run of supported actions inside a single pipeline.
+     *
+     * @param run The actions, all supported by the platform
+     * @return The failures of the actions, as returned by the platform, or {@code null}
+     *         if the whole pipeline failed
+     */
+    private RuntimeException[] pipeline(List<BatchOperation> run) {
+        try {
+            RuntimeException[] failures = platform.execute(run);
+            if (failures != null && failures.length == run.size()) {
+                return failures;
+            }
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Executed on their own below
+        }
+        return null;
+    }
+
+    /**
+     * Executes an action through its widget.
+     *
+     * @param operation The action
+     * @return The failure of the action, or {@code null} if it succeeded
+     *
+     * @throws CancellationException If the execution was cancelled.
+     */
+    private static RuntimeException applyAlone(BatchOperation operation) {
+        try {
+            operation.apply();
+            return null;
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.batch;
+
+import org.futon.actions.Clickable;
+import org.futon.widgets.EditableWidget;
+import org.futon.widgets.Widget;
+
+/**
+ * An action queued into a {@link Batch}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BatchOperation {
+    /**
+     * Possible types of a queued action.
+     */
+    public enum Type {
+        SET_VALUE,
+        CLICK
+    }
+
+    /**
+     * Type of the action.
+     */
+    private final Type type;
+    /**
+     * Target of the action.
+     */
+    private final Widget widget;
+    /**
+     * Value to set, or {@code null} if the action is a click.
+     */
+    private final String value;
+
+    /**
+     * Ctor.
+     *
+     * @param type Type of the action
+     * @param widget Target of the action
+     * @param value Value to set, or {@code null} if the action is a click
+     */
+    private BatchOperation(Type type, Widget widget, String value) {
+        this.type = type;
+        this.widget = widget;
+        this.value = value;
+    }
+
+    /**
+     * Creates the action setting a value on a widget.
+     *
+     * @param widget The widget
+     * @param value The value to set
+     * @return The action
+     */
+    static BatchOperation setValue(EditableWidget widget, String value) {
+        return new BatchOperation(Type.SET_VALUE, widget, value);
+    }
+
+    /**
+     * Creates the action clicking on a widget.
+     *
+     * @param widget The widget
+     * @param <W> The type of the widget
+     * @return The action
+     */
+    static <W extends Widget & Clickable> BatchOperation click(W widget) {
+        return new BatchOperation(Type.CLICK, widget, null);
+    }
+
+    /**
+     * Executes the action through the widget, using its own synchronization.
+     */
+    void apply() {
+        switch (type) {
+            case SET_VALUE:
+                ((EditableWidget) widget).setValue(value);
+                break;
+            case CLICK:
+                ((Clickable) widget).click();
+                break;
+            default:
+                throw new IllegalStateException("Unknown action " + type);
+        }
+    }
+
+    /**
+     * Returns the type of the action.
+     *
+     * @return The type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the target of the action.
+     *
+     * @return The widget
+     */
+    public Widget getWidget() {
+        return widget;
+    }
+
+    /**
+     * Returns the value to set.
+     *
+     * @return The value, or {@code null} if the action is a click
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.CLICK
+                ? String.format("%s %s", type, widget.getIdentity())
+                : String.format("%s %s = '%s'", type, widget.getIdentity(), value);
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of the flush of a {@link Batch}, field by field.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BatchResult {
+    /**
+     * Outcomes of the actions, in the order in which they were queued.
+     */
+    private final List<FieldResult> results;
+
+    /**
+     * Ctor.
+     *
+     * @param results Outcomes of the actions, in the order in which they were queued
+     */
+    BatchResult(List<FieldResult> results) {
+        this.results = Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Returns the outcomes of all the actions.
+     *
+     * @return The outcomes, in the order in which the actions were queued
+     */
+    public List<FieldResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the outcomes of the failed actions.
+     *
+     * @return The outcomes of the failed actions
+     */
+    public List<FieldResult> getFailures() {
+        List<FieldResult> failures = new ArrayList<FieldResult>();
+        for (FieldResult result : results) {
+            if (!result.isSuccessful()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Returns {@code true} if all the actions succeeded.
+     *
+     * @return {@code true} if all the actions succeeded
+     */
+    public boolean isSuccessful() {
+        for (FieldResult result : results) {
+            if (!result.isSuccessful()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return results.toString();
+    }
+}
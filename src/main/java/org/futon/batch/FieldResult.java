@@ -0,0 +1,103 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.batch;
+
+/**
+ * Outcome of an action of a {@link Batch}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class FieldResult {
+    /**
+     * The action.
+     */
+    private final BatchOperation operation;
+    /**
+     * Failure of the action, or {@code null} if it succeeded.
+     */
+    private final RuntimeException failure;
+    /**
+     * Whether the action was executed inside the pipeline.
+     */
+    private final boolean pipelined;
+
+    /**
+     * Ctor.
+     *
+     * @param operation The action
+     * @param failure Failure of the action, or {@code null} if it succeeded
+     * @param pipelined Whether the action was executed inside the pipeline
+     */
+    FieldResult(BatchOperation operation, RuntimeException failure, boolean pipelined) {
+        this.operation = operation;
+        this.failure = failure;
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Returns the action.
+     *
+     * @return The action
+     */
+    public BatchOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns {@code true} if the action succeeded.
+     *
+     * @return {@code true} if the action succeeded
+     */
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    /**
+     * Returns the failure of the action.
+     *
+     * @return The failure, or {@code null} if the action succeeded
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns {@code true} if the action was executed inside the pipeline, {@code false}
+     * if it was executed by the widget on its own.
+     *
+     * @return {@code true} if the action was pipelined
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    @Override
+    public String toString() {
+        return failure == null
+                ? operation + ": OK"
+                : operation + ": " + failure.getMessage();
+    }
+}
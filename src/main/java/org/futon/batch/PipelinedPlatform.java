@@ -0,0 +1,62 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.batch;
+
+import java.util.List;
+
+/**
+ * <p>A platform able to execute many actions in a single call. The implementation
+ *    locates all the targets together and sends all the actions at once, for
+ *    example as a single script executed by the browser.
+ * </p>
+ * <p>The call is a single shot: actions on widgets not available yet fail, and
+ *    the {@link Batch} retries them through the synchronization of the widgets.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public interface PipelinedPlatform {
+    /**
+     * Returns {@code true} if the platform can execute the {@code operation} inside a
+     * pipeline.
+     *
+     * @param operation An action
+     * @return {@code true} if the action can be pipelined
+     */
+    public boolean supports(BatchOperation operation);
+
+    /**
+     * Executes the {@code operations}, in order, in a single call to the platform. The
+     * execution stops at the first failed action: the actions following it must not be
+     * executed, since the {@link Batch} executes them after retrying the failed one.
+     *
+     * @param operations The actions to execute
+     * @return The failures of the actions: the element at index {@code i} is the
+     *         failure of the {@code i}-th action, or {@code null} if the action
+     *         succeeded. The elements following the first failure are ignored.
+     */
+    public RuntimeException[] execute(List<BatchOperation> operations);
+}
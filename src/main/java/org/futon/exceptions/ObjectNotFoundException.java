@@ -56,4 +56,37 @@ public class ObjectNotFoundException extends RuntimeException {
     public ObjectNotFoundException(Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Constructs an exception with {@code message} as detail, wrapping {@code cause}.
+     *
+     * @param message Exception's detail.
+     * @param cause The cause of the exception.
+     */
+    public ObjectNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Constructs an exception with {@code message} as detail, filling its stack
+     * trace only if {@code writableStackTrace} is {@code true}.
+     *
+     * @param message Exception's detail.
+     * @param writableStackTrace Whether the stack trace is filled.
+     */
+    protected ObjectNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Creates an exception without stack trace. Platform bindings that signal a
+     * missing testable object by an exception should use it, since building it
+     * costs almost nothing.
+     *
+     * @param message Exception's detail.
+     * @return The exception.
+     */
+    public static ObjectNotFoundException stackless(String message) {
+        return new ObjectNotFoundException(message, false);
+    }
 }
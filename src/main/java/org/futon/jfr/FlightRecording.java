@@ -0,0 +1,245 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.jfr;
+
+import org.futon.Testable;
+import org.futon.actions.Reloadable;
+import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.sync.ExecutionContext;
+import org.futon.sync.SyncPhase;
+import org.futon.sync.SyncTarget;
+import org.futon.sync.Synchronizer;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * <p>Emits the Flight Recorder events of futon. Callers check {@link #isEnabled()}
+ *    first, so that nothing is allocated while the events are disabled.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class FlightRecording {
+    /**
+     * Ctor.
+     */
+    private FlightRecording() {
+    }
+
+    /**
+     * Returns {@code true} if any event of the synchronization is enabled.
+     *
+     * @return {@code true} if the synchronization has to be traced
+     */
+    public static boolean isEnabled() {
+        return SyncEvent.enabled() || PlatformCallEvent.enabled();
+    }
+
+    /**
+     * Runs a synchronization, emitting its events.
+     *
+     * @param synchronizer The synchronization engine
+     * @param target The target of the action
+     * @param context The execution context (it can be {@code null})
+     * @param maxBudget Max time budget of the action, in milliseconds, or zero for no
+     *                  limit
+     * @param widgetClass Class of the widget
+     * @param locator Locator of the widget (it can be {@code null})
+     * @param operation The method of the widget that started the synchronization
+     * @return The testable object on which the action was done
+     */
+    public static Testable sync(Synchronizer synchronizer, SyncTarget target,
+                                ExecutionContext context, long maxBudget,
+                                String widgetClass, String locator, String operation) {
+        TracedTarget traced = new TracedTarget(target, widgetClass, locator);
+        SyncEvent event = new SyncEvent();
+        event.begin();
+        String outcome = "FAILED";
+        try {
+            Testable testable = synchronizer.run(traced, context, maxBudget);
+            outcome = "SUCCESS";
+            return testable;
+        } catch (ObjectNotFoundException e) {
+            outcome = "NOT_FOUND";
+            throw e;
+        } catch (CancellationException e) {
+            outcome = "CANCELLED";
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.widgetClass = widgetClass;
+                event.locator = locator;
+                event.operation = operation;
+                event.attempts = traced.locates;
+                event.phase = String.valueOf(traced.phase);
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Reloads a container, emitting the reload event if enabled.
+     *
+     * @param container The container
+     * @param containerClass Class of the container
+     * @param locator Locator of the container (it can be {@code null})
+     * @param kind {@code REQUEST} if requested by the synchronization, {@code PLATFORM}
+     *             if done on the platform
+     */
+    public static void reload(Reloadable container, String containerClass, String locator,
+                              String kind) {
+        if (!ReloadEvent.enabled()) {
+            container.reload();
+            return;
+        }
+        ReloadEvent event = new ReloadEvent();
+        event.begin();
+        String outcome = "FAILED";
+        try {
+            container.reload();
+            outcome = "SUCCESS";
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.containerClass = containerClass;
+                event.locator = locator;
+                event.kind = kind;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * A target emitting an event for every call to the platform, and counting the
+     * attempts.
+     */
+    private static final class TracedTarget implements SyncTarget {
+        /**
+         * The traced target.
+         */
+        private final SyncTarget target;
+        /**
+         * Class of the widget.
+         */
+        private final String widgetClass;
+        /**
+         * Locator of the widget.
+         */
+        private final String locator;
+        /**
+         * Number of locates.
+         */
+        private int locates;
+        /**
+         * Last phase.
+         */
+        private SyncPhase phase;
+
+        /**
+         * Ctor.
+         *
+         * @param target The traced target
+         * @param widgetClass Class of the widget
+         * @param locator Locator of the widget
+         */
+        private TracedTarget(SyncTarget target, String widgetClass, String locator) {
+            this.target = target;
+            this.widgetClass = widgetClass;
+            this.locator = locator;
+        }
+
+        @Override
+        public Testable locate() {
+            phase = SyncPhase.LOCATE;
+            locates++;
+            PlatformCallEvent event = begin();
+            String outcome = "FAILED";
+            try {
+                Testable testable = target.locate();
+                outcome = testable != null ? "SUCCESS" : "NOT_FOUND";
+                return testable;
+            } finally {
+                commit(event, outcome);
+            }
+        }
+
+        @Override
+        public void act(Testable testable) {
+            phase = SyncPhase.ACT;
+            PlatformCallEvent event = begin();
+            String outcome = "FAILED";
+            try {
+                target.act(testable);
+                outcome = "SUCCESS";
+            } finally {
+                commit(event, outcome);
+            }
+        }
+
+        @Override
+        public boolean isCached() {
+            return target.isCached();
+        }
+
+        /**
+         * Begins the event of a call to the platform, if enabled.
+         *
+         * @return The event, or {@code null} if disabled
+         */
+        private PlatformCallEvent begin() {
+            if (!PlatformCallEvent.enabled()) {
+                return null;
+            }
+            PlatformCallEvent event = new PlatformCallEvent();
+            event.begin();
+            return event;
+        }
+
+        /**
+         * Commits the event of a call to the platform.
+         *
+         * @param event The event (it can be {@code null})
+         * @param outcome The outcome of the call
+         */
+        private void commit(PlatformCallEvent event, String outcome) {
+            if (event == null) {
+                return;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.widgetClass = widgetClass;
+                event.locator = locator;
+                event.phase = String.valueOf(phase);
+                event.attempt = locates;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A call to the platform done by the synchronization of a widget, either to locate
+ * its testable object or to act on it.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+@Name("org.futon.PlatformCall")
+@Label("Platform Call")
+@Description("A call to the platform locating a widget or acting on it")
+@Category("futon")
+@Enabled(false)
+@StackTrace(false)
+public final class PlatformCallEvent extends Event {
+    /**
+     * Type of the event.
+     */
+    private static final EventType TYPE = EventType.getEventType(PlatformCallEvent.class);
+
+    /**
+     * Class of the widget.
+     */
+    @Label("Widget Class")
+    String widgetClass;
+
+    /**
+     * Locator of the widget.
+     */
+    @Label("Locator")
+    String locator;
+
+    /**
+     * Phase of the synchronization.
+     */
+    @Label("Phase")
+    String phase;
+
+    /**
+     * Number of the attempt.
+     */
+    @Label("Attempt")
+    int attempt;
+
+    /**
+     * Outcome of the call.
+     */
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Returns {@code true} if the event is enabled in a running recording.
+     *
+     * @return {@code true} if the event is enabled
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
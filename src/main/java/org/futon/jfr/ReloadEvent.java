@@ -0,0 +1,88 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A reload of a container, either requested by the synchronization or done on the
+ * platform.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+@Name("org.futon.Reload")
+@Label("Container Reload")
+@Description("A reload of a container of widgets")
+@Category("futon")
+@Enabled(false)
+@StackTrace(false)
+public final class ReloadEvent extends Event {
+    /**
+     * Type of the event.
+     */
+    private static final EventType TYPE = EventType.getEventType(ReloadEvent.class);
+
+    /**
+     * Class of the container.
+     */
+    @Label("Container Class")
+    String containerClass;
+
+    /**
+     * Locator of the container.
+     */
+    @Label("Locator")
+    String locator;
+
+    /**
+     * Kind of the reload.
+     */
+    @Label("Kind")
+    @Description("REQUEST if requested by the synchronization, PLATFORM if done on the platform")
+    String kind;
+
+    /**
+     * Outcome of the reload.
+     */
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Returns {@code true} if the event is enabled in a running recording.
+     *
+     * @return {@code true} if the event is enabled
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A synchronized action on a widget, from its first attempt to its outcome.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+@Name("org.futon.Sync")
+@Label("Widget Sync")
+@Description("A synchronized action on a widget")
+@Category("futon")
+@Enabled(false)
+@StackTrace(false)
+public final class SyncEvent extends Event {
+    /**
+     * Type of the event.
+     */
+    private static final EventType TYPE = EventType.getEventType(SyncEvent.class);
+
+    /**
+     * Class of the widget.
+     */
+    @Label("Widget Class")
+    String widgetClass;
+
+    /**
+     * Locator of the widget.
+     */
+    @Label("Locator")
+    String locator;
+
+    /**
+     * The method of the widget that started the synchronization.
+     */
+    @Label("Operation")
+    @Description("The method of the widget that started the synchronization")
+    String operation;
+
+    /**
+     * Number of attempts.
+     */
+    @Label("Attempts")
+    int attempts;
+
+    /**
+     * Phase of the synchronization.
+     */
+    @Label("Phase")
+    @Description("The last phase of the synchronization")
+    String phase;
+
+    /**
+     * Outcome of the synchronization.
+     */
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Returns {@code true} if the event is enabled in a running recording.
+     *
+     * @return {@code true} if the event is enabled
+     */
+    public static boolean enabled() {
+        return TYPE.isEnabled();
+    }
+}
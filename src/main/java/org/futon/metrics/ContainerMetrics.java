@@ -0,0 +1,90 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the reloads of the containers having the same identity.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ContainerMetrics implements ContainerMetricsMXBean {
+    /**
+     * Identity of the containers.
+     */
+    private final String identity;
+    /**
+     * Number of reloads requested by the synchronization.
+     */
+    private final LongAdder reloads = new LongAdder();
+    /**
+     * Number of reloads done on the platform.
+     */
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * Ctor.
+     *
+     * @param identity Identity of the containers
+     */
+    ContainerMetrics(String identity) {
+        this.identity = identity;
+    }
+
+    /**
+     * Records a reload requested by the synchronization.
+     */
+    public void reload() {
+        reloads.increment();
+    }
+
+    /**
+     * Records a reload done on the platform.
+     */
+    public void refresh() {
+        refreshes.increment();
+    }
+
+    /**
+     * Returns the identity of the containers.
+     *
+     * @return The identity
+     */
+    public String getIdentity() {
+        return identity;
+    }
+
+    @Override
+    public long getReloads() {
+        return reloads.sum();
+    }
+
+    @Override
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.metrics;
+
+import org.futon.exceptions.ConfigurationException;
+import org.futon.sync.LatencyHistogram;
+import org.futon.utils.AtomicFile;
+import org.futon.utils.FProperties;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Registry of the metrics of the widgets and of their containers, by identity.
+ *    The metrics of a widget are created the first time it does an action, and the
+ *    widget keeps a reference to them, so recording never looks up the registry.
+ * </p>
+ * <p>Metrics can be exported as MBeans, under the {@code org.futon} domain, and
+ *    periodically dumped to a local file in JSON format.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class MetricsRegistry {
+    /**
+     * Metrics of the widgets, by identity.
+     */
+    private final ConcurrentMap<String, WidgetMetrics> widgets =
+            new ConcurrentHashMap<String, WidgetMetrics>();
+    /**
+     * Metrics of the containers, by identity.
+     */
+    private final ConcurrentMap<String, ContainerMetrics> containers =
+            new ConcurrentHashMap<String, ContainerMetrics>();
+    /**
+     * Server of the MBeans, or {@code null} if metrics are not exported through JMX.
+     */
+    private final MBeanServer server;
+
+    /**
+     * Ctor.
+     *
+     * @param jmx Whether metrics are exported through JMX
+     */
+    public MetricsRegistry(boolean jmx) {
+        this.server = jmx ? ManagementFactory.getPlatformMBeanServer() : null;
+    }
+
+    /**
+     * Creates the registry configured in the {@code futon.properties} file.
+     *
+     * @return The registry, or {@code null} if metrics are disabled
+     *
+     * @throws ConfigurationException If the configuration is not valid.
+     */
+    public static MetricsRegistry fromProperties() {
+        FProperties props = FProperties.INSTANCE;
+        if (!props.getBoolean(FProperties.Property.METRICS_ENABLED)) {
+            return null;
+        }
+        MetricsRegistry registry =
+                new MetricsRegistry(props.getBoolean(FProperties.Property.METRICS_JMX));
+        String path = props.get(FProperties.Property.METRICS_FILE);
+        if (path.length() > 0) {
+            registry.dumpPeriodically(new File(path),
+                                      props.getLong(FProperties.Property.METRICS_INTERVAL));
+        }
+        return registry;
+    }
+
+    /**
+     * Returns the metrics of the widgets with identity {@code identity}.
+     *
+     * @param identity Identity of the widgets
+     * @return The metrics
+     */
+    public WidgetMetrics widget(String identity) {
+        WidgetMetrics metrics = widgets.get(identity);
+        if (metrics == null) {
+            WidgetMetrics created = new WidgetMetrics(identity);
+            metrics = widgets.putIfAbsent(identity, created);
+            if (metrics == null) {
+                metrics = created;
+                register("Widget", identity, created);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics of the containers with identity {@code identity}.
+     *
+     * @param identity Identity of the containers
+     * @return The metrics
+     */
+    public ContainerMetrics container(String identity) {
+        ContainerMetrics metrics = containers.get(identity);
+        if (metrics == null) {
+            ContainerMetrics created = new ContainerMetrics(identity);
+            metrics = containers.putIfAbsent(identity, created);
+            if (metrics == null) {
+                metrics = created;
+                register("Container", identity, created);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics of all the widgets, by identity.
+     *
+     * @return The metrics of the widgets
+     */
+    public Map<String, WidgetMetrics> getWidgets() {
+        return new TreeMap<String, WidgetMetrics>(widgets);
+    }
+
+    /**
+     * Returns the metrics of all the containers, by identity.
+     *
+     * @return The metrics of the containers
+     */
+    public Map<String, ContainerMetrics> getContainers() {
+        return new TreeMap<String, ContainerMetrics>(containers);
+    }
+
+    /**
+     * Registers the MBean of some metrics, if metrics are exported through JMX.
+     *
+     * @param type Type of the metrics
+     * @param identity Identity of the metrics
+     * @param mbean The metrics
+     */
+    private void register(String type, String identity, Object mbean) {
+        if (server == null) {
+            return;
+        }
+        try {
+            server.registerMBean(mbean, new ObjectName(
+                    "org.futon:type=" + type + ",name=" + ObjectName.quote(identity)));
+        } catch (JMException e) {
+            // Metrics are still recorded and dumped
+        }
+    }
+
+    /**
+     * Writes all the metrics in JSON format.
+     *
+     * @param writer Destination of the metrics
+     * @throws IOException If the metrics cannot be written
+     */
+    public void dump(Writer writer) throws IOException {
+        writer.write("{\"timestamp\":" + System.currentTimeMillis() + ",\"widgets\":[");
+        String separator = "";
+        for (WidgetMetrics metrics : getWidgets().values()) {
+            writer.write(separator);
+            writer.write(String.format(
+                    "{\"identity\":%s,\"actions\":%d,\"retries\":%d,\"timeouts\":%d,"
+                    + "\"notFound\":%d,\"locate\":%s,\"action\":%s}",
+                    quote(metrics.getIdentity()), metrics.getActions(), metrics.getRetries(),
+                    metrics.getTimeouts(), metrics.getNotFound(),
+                    toJson(metrics.getLocate()), toJson(metrics.getAction())));
+            separator = ",";
+        }
+        writer.write("],\"containers\":[");
+        separator = "";
+        for (ContainerMetrics metrics : getContainers().values()) {
+            writer.write(separator);
+            writer.write(String.format("{\"identity\":%s,\"reloads\":%d,\"refreshes\":%d}",
+                                       quote(metrics.getIdentity()), metrics.getReloads(),
+                                       metrics.getRefreshes()));
+            separator = ",";
+        }
+        writer.write("]}\n");
+        writer.flush();
+    }
+
+    /**
+     * Dumps all the metrics to {@code file}, replacing its content.
+     *
+     * @param file Destination of the metrics
+     * @throws IOException If the metrics cannot be written
+     */
+    public void dump(File file) throws IOException {
+        AtomicFile.write(file, this::dump);
+    }
+
+    /**
+     * Dumps all the metrics to {@code file} every {@code interval} milliseconds, and
+     * when the JVM exits.
+     *
+     * @param file Destination of the metrics
+     * @param interval Interval between two dumps, in milliseconds
+     */
+    public void dumpPeriodically(final File file, long interval) {
+        final Runnable dump = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    dump(file);
+                } catch (IOException e) {
+                    // The next dump will try again
+                }
+            }
+        };
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "futon-metrics-dump");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        scheduler.scheduleWithFixedDelay(dump, interval, interval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(dump, "futon-metrics-save"));
+    }
+
+    /**
+     * Formats a histogram in JSON format.
+     *
+     * @param histogram The histogram
+     * @return The histogram in JSON format
+     */
+    private static String toJson(LatencyHistogram histogram) {
+        return String.format("{\"count\":%d,\"meanMicros\":%d,\"p50Micros\":%d,"
+                             + "\"p99Micros\":%d,\"maxMicros\":%d}",
+                             histogram.getCount(), histogram.getMean(),
+                             histogram.percentile(50.0), histogram.percentile(99.0),
+                             histogram.getMax());
+    }
+
+    /**
+     * Quotes a string in JSON format.
+     *
+     * @param value The string
+     * @return The quoted string
+     */
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.metrics;
+
+import org.futon.sync.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Metrics of the actions on the widgets having the same identity, that is the same
+ *    class and locator.
+ * </p>
+ * <p>Recording an action updates a handful of striped adders, without any lock nor
+ *    allocation.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class WidgetMetrics implements WidgetMetricsMXBean {
+    /**
+     * Identity of the widgets.
+     */
+    private final String identity;
+    /**
+     * Latency of the locates, in microseconds.
+     */
+    private final LatencyHistogram locate = new LatencyHistogram();
+    /**
+     * Latency of the whole actions, including the locate, in microseconds.
+     */
+    private final LatencyHistogram action = new LatencyHistogram();
+    /**
+     * Number of actions.
+     */
+    private final LongAdder actions = new LongAdder();
+    /**
+     * Number of retries.
+     */
+    private final LongAdder retries = new LongAdder();
+    /**
+     * Number of actions ran out of time.
+     */
+    private final LongAdder timeouts = new LongAdder();
+    /**
+     * Number of actions failed with an {@code ObjectNotFoundException}.
+     */
+    private final LongAdder notFound = new LongAdder();
+
+    /**
+     * Ctor.
+     *
+     * @param identity Identity of the widgets
+     */
+    WidgetMetrics(String identity) {
+        this.identity = identity;
+    }
+
+    /**
+     * Records a successful locate.
+     *
+     * @param micros Time needed to locate the widget, in microseconds
+     */
+    public void locate(long micros) {
+        locate.record(micros);
+    }
+
+    /**
+     * Records a completed action.
+     *
+     * @param micros Duration of the action, in microseconds
+     * @param attempts Number of attempts done
+     * @param succeeded Whether the action succeeded
+     * @param timedOut Whether the action ran out of time
+     */
+    public void action(long micros, int attempts, boolean succeeded, boolean timedOut) {
+        action.record(micros);
+        actions.increment();
+        if (attempts > 1) {
+            retries.add(attempts - 1);
+        }
+        if (!succeeded) {
+            notFound.increment();
+            if (timedOut) {
+                timeouts.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the identity of the widgets.
+     *
+     * @return The identity
+     */
+    public String getIdentity() {
+        return identity;
+    }
+
+    /**
+     * Returns the histogram of the latency of the locates.
+     *
+     * @return The histogram, in microseconds
+     */
+    public LatencyHistogram getLocate() {
+        return locate;
+    }
+
+    /**
+     * Returns the histogram of the duration of the actions.
+     *
+     * @return The histogram, in microseconds
+     */
+    public LatencyHistogram getAction() {
+        return action;
+    }
+
+    @Override
+    public long getActions() {
+        return actions.sum();
+    }
+
+    @Override
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getNotFound() {
+        return notFound.sum();
+    }
+
+    @Override
+    public long getLocateMeanMicros() {
+        return locate.getMean();
+    }
+
+    @Override
+    public long getLocateP99Micros() {
+        return locate.percentile(99.0);
+    }
+
+    @Override
+    public long getActionMeanMicros() {
+        return action.getMean();
+    }
+
+    @Override
+    public long getActionP99Micros() {
+        return action.percentile(99.0);
+    }
+
+    @Override
+    public long getActionMaxMicros() {
+        return action.getMax();
+    }
+}
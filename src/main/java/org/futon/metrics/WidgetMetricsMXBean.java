@@ -0,0 +1,96 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.metrics;
+
+/**
+ * Management interface of the {@link WidgetMetrics}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public interface WidgetMetricsMXBean {
+    /**
+     * Returns the number of actions.
+     *
+     * @return The number of actions
+     */
+    public long getActions();
+
+    /**
+     * Returns the number of retries of all the actions.
+     *
+     * @return The number of retries
+     */
+    public long getRetries();
+
+    /**
+     * Returns the number of actions ran out of time.
+     *
+     * @return The number of timeouts
+     */
+    public long getTimeouts();
+
+    /**
+     * Returns the number of actions failed with an {@code ObjectNotFoundException}.
+     *
+     * @return The number of failed actions
+     */
+    public long getNotFound();
+
+    /**
+     * Returns the mean latency of the locates.
+     *
+     * @return The mean latency, in microseconds
+     */
+    public long getLocateMeanMicros();
+
+    /**
+     * Returns the 99th percentile of the latency of the locates.
+     *
+     * @return The percentile, in microseconds
+     */
+    public long getLocateP99Micros();
+
+    /**
+     * Returns the mean duration of the actions.
+     *
+     * @return The mean duration, in microseconds
+     */
+    public long getActionMeanMicros();
+
+    /**
+     * Returns the 99th percentile of the duration of the actions.
+     *
+     * @return The percentile, in microseconds
+     */
+    public long getActionP99Micros();
+
+    /**
+     * Returns the max duration of the actions.
+     *
+     * @return The max duration, in microseconds
+     */
+    public long getActionMaxMicros();
+}
@@ -0,0 +1,84 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.simulation;
+
+import java.util.Random;
+
+/**
+ * Distribution of the latency of the calls to the {@link SimulatedPlatform}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public interface LatencyDistribution {
+    /**
+     * No latency at all.
+     */
+    public static final LatencyDistribution NONE = fixed(0L);
+
+    /**
+     * Draws the latency of a call.
+     *
+     * @param random Source of randomness of the platform
+     * @return The latency, in microseconds
+     */
+    public long nextMicros(Random random);
+
+    /**
+     * Creates a distribution always giving the same latency.
+     *
+     * @param micros The latency, in microseconds
+     * @return The distribution
+     */
+    public static LatencyDistribution fixed(final long micros) {
+        return random -> micros;
+    }
+
+    /**
+     * Creates a distribution giving latencies uniformly distributed in a range.
+     *
+     * @param min Min latency, in microseconds
+     * @param max Max latency, in microseconds
+     * @return The distribution
+     */
+    public static LatencyDistribution uniform(final long min, final long max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid latency range: [%d, %d] us", min, max));
+        }
+        return random -> min + (long) (random.nextDouble() * (max - min));
+    }
+
+    /**
+     * Creates a distribution giving exponentially distributed latencies, that is with
+     * a long tail of slow calls.
+     *
+     * @param mean Mean latency, in microseconds
+     * @return The distribution
+     */
+    public static LatencyDistribution exponential(final long mean) {
+        return random -> (long) (-mean * Math.log(1.0 - random.nextDouble()));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.simulation;
+
+import org.futon.Testable;
+import org.futon.actions.Reloadable;
+import org.futon.exceptions.InvalidActionException;
+import org.futon.widgets.ClosableSection;
+
+/**
+ * A closable section, bound to a {@link SimulatedPlatform}. The widgets inside a
+ * closed section cannot be located.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class SimulatedClosableSection extends ClosableSection {
+    /**
+     * Platform of the widget.
+     */
+    private final SimulatedPlatform platform;
+    /**
+     * Identifier of the node of the widget.
+     */
+    private final String id;
+
+    /**
+     * Ctor.
+     *
+     * @param platform Platform of the widget
+     * @param container Container of the widget (it can be {@code null})
+     * @param id Identifier of the node of the widget
+     */
+    public SimulatedClosableSection(SimulatedPlatform platform, Reloadable container, String id) {
+        super(container);
+        this.platform = platform;
+        this.id = id;
+    }
+
+    @Override
+    public void close() throws InvalidActionException {
+        if (closed()) {
+            throw new InvalidActionException("Section " + id + " is already closed");
+        }
+        doQuery(testable -> {
+            platform.setClosed(testable, true);
+            return null;
+        });
+    }
+
+    @Override
+    public void open() throws InvalidActionException {
+        if (!closed()) {
+            throw new InvalidActionException("Section " + id + " is already open");
+        }
+        doQuery(testable -> {
+            platform.setClosed(testable, false);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean closed() {
+        return doQuery(platform::isClosed);
+    }
+
+    /**
+     * Reloads the section on the platform, if it is shown. The section is located once,
+     * without waiting: the action that triggered the reload retries it if needed.
+     */
+    @Override
+    protected void doReload() {
+        Testable testable = tryFindTestable();
+        if (testable != null) {
+            platform.reload(testable);
+        }
+    }
+
+    @Override
+    public String getLocator() {
+        return id;
+    }
+
+    @Override
+    protected Testable findTestable() {
+        return platform.locate(id);
+    }
+
+    @Override
+    protected Testable tryFindTestable() {
+        return platform.tryLocate(id);
+    }
+
+    @Override
+    protected boolean isStale(Testable testable) {
+        return platform.isStale(testable);
+    }
+
+    @Override
+    protected void doOnTestable(Testable testable) {
+        platform.click(testable);
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.simulation;
+
+import org.futon.Testable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A component of the tree of a {@link SimulatedPlatform}. Nodes are the testable
+ *    objects of the simulated widgets.
+ * </p>
+ * <p>Every change of a node made by the script is notified to the platform, so
+ *    widgets waiting through an event waiter are woken up.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SimulatedNode implements Testable {
+    /**
+     * Platform owning the node.
+     */
+    private final SimulatedPlatform platform;
+    /**
+     * Identifier of the node.
+     */
+    private final String id;
+    /**
+     * Parent of the node, or {@code null} if the node is the root.
+     */
+    private final SimulatedNode parent;
+    /**
+     * Children of the node.
+     */
+    private final List<SimulatedNode> children = new CopyOnWriteArrayList<SimulatedNode>();
+    /**
+     * Number of clicks received.
+     */
+    private final AtomicInteger clicks = new AtomicInteger();
+    /**
+     * Number of locates still failing before the node appears.
+     */
+    private final AtomicInteger hiddenLocates = new AtomicInteger();
+    /**
+     * Time in which the node appears, in nanoseconds.
+     */
+    private volatile long appearsAt = System.nanoTime();
+    /**
+     * Whether the node is attached to the tree.
+     */
+    private volatile boolean attached = true;
+    /**
+     * Whether the node is closed, hiding its children.
+     */
+    private volatile boolean closed;
+    /**
+     * Whether the node is checked or selected.
+     */
+    private volatile boolean checked;
+    /**
+     * Value of the node.
+     */
+    private volatile String value = "";
+    /**
+     * Values allowed, or {@code null} if any value is allowed.
+     */
+    private volatile List<String> options;
+    /**
+     * Cells of the node, if it is a table.
+     */
+    private volatile String[][] cells = new String[0][];
+
+    /**
+     * Ctor.
+     *
+     * @param platform Platform owning the node
+     * @param id Identifier of the node
+     * @param parent Parent of the node, or {@code null} if the node is the root
+     */
+    SimulatedNode(SimulatedPlatform platform, String id, SimulatedNode parent) {
+        this.platform = platform;
+        this.id = id;
+        this.parent = parent;
+    }
+
+    /**
+     * Adds a child to the node.
+     *
+     * @param childId Identifier of the child
+     * @return The child
+     */
+    public SimulatedNode add(String childId) {
+        return platform.add(this, childId);
+    }
+
+    /**
+     * Adds a child to the list of the children.
+     *
+     * @param child The child
+     */
+    void addChild(SimulatedNode child) {
+        children.add(child);
+    }
+
+    /**
+     * Detaches the node, and all its children, from the tree. The testable objects
+     * cached by the widgets become stale.
+     */
+    public void detach() {
+        attached = false;
+        if (parent != null) {
+            parent.children.remove(this);
+        }
+        platform.changed();
+    }
+
+    /**
+     * Makes the node appear only after {@code millis} milliseconds from now.
+     *
+     * @param millis Delay of the appearance, in milliseconds
+     * @return The node
+     */
+    public SimulatedNode appearAfter(long millis) {
+        appearsAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        platform.changedAfter(millis);
+        return this;
+    }
+
+    /**
+     * Makes the node appear only after {@code locates} failed locates. Unlike
+     * #appearAfter, the delay does not depend on time, so that scripts are
+     * deterministic.
+     *
+     * @param locates Number of failed locates
+     * @return The node
+     */
+    public SimulatedNode appearAfterLocates(int locates) {
+        hiddenLocates.set(locates);
+        return this;
+    }
+
+    /**
+     * Sets the value of the node.
+     *
+     * @param value The value
+     * @return The node
+     */
+    public SimulatedNode value(String value) {
+        this.value = value;
+        platform.changed();
+        return this;
+    }
+
+    /**
+     * Restricts the values allowed for the node, as the options of a select.
+     *
+     * @param options The values allowed
+     * @return The node
+     */
+    public SimulatedNode options(String... options) {
+        this.options = Collections.unmodifiableList(Arrays.asList(options.clone()));
+        platform.changed();
+        return this;
+    }
+
+    /**
+     * Sets the cells of the node, as the content of a table.
+     *
+     * @param cells The cells, by row
+     * @return The node
+     */
+    public SimulatedNode cells(String[][] cells) {
+        this.cells = cells.clone();
+        platform.changed();
+        return this;
+    }
+
+    /**
+     * Returns {@code true} if the node can be located: it was not detached, it has
+     * already appeared, and no container of it is closed.
+     *
+     * @return {@code true} if the node can be located
+     */
+    boolean isLocatable() {
+        if (System.nanoTime() < appearsAt) {
+            return false;
+        }
+        if (hiddenLocates.get() > 0 && hiddenLocates.getAndDecrement() > 0) {
+            return false;
+        }
+        for (SimulatedNode node = parent; node != null; node = node.parent) {
+            if (!node.attached || node.closed) {
+                return false;
+            }
+        }
+        return attached;
+    }
+
+    /**
+     * Counts a click on the node.
+     */
+    void click() {
+        clicks.incrementAndGet();
+    }
+
+    /**
+     * Checks the node, unchecking its siblings, as a radio button or a tab.
+     */
+    void select() {
+        if (parent != null) {
+            for (SimulatedNode sibling : parent.children) {
+                sibling.checked = false;
+            }
+        }
+        checked = true;
+    }
+
+    /**
+     * Toggles the check of the node.
+     */
+    void toggle() {
+        checked = !checked;
+    }
+
+    /**
+     * Opens or closes the node.
+     *
+     * @param closed {@code true} to close the node
+     */
+    void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+
+    /**
+     * Sets the value of the node, as done by a widget.
+     *
+     * @param value The value
+     */
+    void write(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Returns the identifier of the node.
+     *
+     * @return The identifier
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the parent of the node.
+     *
+     * @return The parent, or {@code null} if the node is the root
+     */
+    public SimulatedNode getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the children of the node.
+     *
+     * @return The children
+     */
+    public List<SimulatedNode> getChildren() {
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Returns {@code true} if the node is attached to the tree.
+     *
+     * @return {@code true} if the node is attached
+     */
+    public boolean isAttached() {
+        return attached;
+    }
+
+    /**
+     * Returns {@code true} if the node is closed.
+     *
+     * @return {@code true} if the node is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns {@code true} if the node is checked or selected.
+     *
+     * @return {@code true} if the node is checked
+     */
+    public boolean isChecked() {
+        return checked;
+    }
+
+    /**
+     * Returns the value of the node.
+     *
+     * @return The value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the values allowed for the node.
+     *
+     * @return The values allowed, or {@code null} if any value is allowed
+     */
+    public List<String> getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns the cells of the node.
+     *
+     * @return The cells, by row
+     */
+    String[][] getCells() {
+        return cells;
+    }
+
+    /**
+     * Returns the number of clicks received by the node.
+     *
+     * @return The number of clicks
+     */
+    public int getClicks() {
+        return clicks.get();
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedNode[" + id + "]";
+    }
+}
@@ -0,0 +1,540 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.simulation;
+
+import org.futon.Testable;
+import org.futon.exceptions.InvalidActionException;
+import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.utils.ChangeSignal;
+import org.futon.utils.EventWaiter;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Platform simulated in memory, made of a tree of {@link SimulatedNode}. It is the
+ *    reference binding of the widgets of futon, used to exercise the synchronization
+ *    policies, the caches and the concurrent runners without a real browser.
+ * </p>
+ * <p>Every call to the platform costs a latency drawn from a
+ *    {@link LatencyDistribution}, and fails with a given probability. Nodes can appear
+ *    after a delay or after a number of failed locates. Given the same seed, a
+ *    single-threaded script always sees the same latencies and failures.
+ * </p>
+ * <pre>
+ *     SimulatedPlatform platform = SimulatedPlatform.builder()
+ *             .latency(LatencyDistribution.exponential(500L))
+ *             .failureRate(0.01)
+ *             .seed(42L)
+ *             .build();
+ *     platform.add("name").appearAfter(200L);
+ *     Text name = new SimulatedText(platform, null, "name");
+ *     name.setValue("Riccardo");
+ * </pre>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SimulatedPlatform {
+    /**
+     * Identifier of the root node.
+     */
+    public static final String ROOT = "root";
+
+    /**
+     * Nodes attached to the tree, by identifier.
+     */
+    private final ConcurrentMap<String, SimulatedNode> nodes =
+            new ConcurrentHashMap<String, SimulatedNode>();
+    /**
+     * Signal of the changes of the tree.
+     */
+    private final ChangeSignal signal = new ChangeSignal();
+    /**
+     * Number of calls to the platform.
+     */
+    private final AtomicLong calls = new AtomicLong();
+    /**
+     * Root of the tree.
+     */
+    private final SimulatedNode root;
+    /**
+     * Latency of the calls.
+     */
+    private final LatencyDistribution latency;
+    /**
+     * Probability that a call fails.
+     */
+    private final double failureRate;
+    /**
+     * Source of randomness.
+     */
+    private final Random random;
+
+    /**
+     * Ctor.
+     *
+     * @param builder The builder of the platform
+     */
+    private SimulatedPlatform(Builder builder) {
+        this.latency = builder.latency;
+        this.failureRate = builder.failureRate;
+        this.random = new Random(builder.seed);
+        this.root = new SimulatedNode(this, ROOT, null);
+        nodes.put(ROOT, root);
+    }
+
+    /**
+     * Creates a builder of a platform.
+     *
+     * @return The builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Adds a node under the root.
+     *
+     * @param id Identifier of the node
+     * @return The node
+     */
+    public SimulatedNode add(String id) {
+        return add(root, id);
+    }
+
+    /**
+     * Adds a node under {@code parent}.
+     *
+     * @param parent The parent
+     * @param id Identifier of the node
+     * @return The node
+     */
+    SimulatedNode add(SimulatedNode parent, String id) {
+        SimulatedNode node = new SimulatedNode(this, id, parent);
+        if (nodes.putIfAbsent(id, node) != null) {
+            throw new IllegalArgumentException("Duplicated node " + id);
+        }
+        parent.addChild(node);
+        changed();
+        return node;
+    }
+
+    /**
+     * Removes a node, and all its children, from the tree.
+     *
+     * @param id Identifier of the node
+     */
+    public void remove(String id) {
+        SimulatedNode node = nodes.remove(id);
+        if (node != null) {
+            node.detach();
+        }
+    }
+
+    /**
+     * Returns a node of the tree, without any latency.
+     *
+     * @param id Identifier of the node
+     * @return The node, or {@code null} if it does not exist
+     */
+    public SimulatedNode getNode(String id) {
+        return nodes.get(id);
+    }
+
+    /**
+     * Returns the root of the tree.
+     *
+     * @return The root
+     */
+    public SimulatedNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Creates a waiter woken up by the changes of the tree.
+     *
+     * @param maxPause Max pause, in milliseconds, if the tree does not change
+     * @return The waiter
+     */
+    public EventWaiter newWaiter(long maxPause) {
+        return new EventWaiter(signal, maxPause);
+    }
+
+    /**
+     * Returns the number of calls to the platform done so far.
+     *
+     * @return The number of calls
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * Notifies a change of the tree.
+     */
+    void changed() {
+        signal.signal();
+    }
+
+    /**
+     * Notifies a change of the tree after {@code millis} milliseconds, for example
+     * when a delayed node appears.
+     *
+     * @param millis Delay of the change, in milliseconds
+     */
+    void changedAfter(long millis) {
+        Timer.INSTANCE.schedule(new Runnable() {
+            @Override
+            public void run() {
+                changed();
+            }
+        }, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Locates a node.
+     *
+     * @param id Identifier of the node
+     * @return The node
+     *
+     * @throws ObjectNotFoundException If the node cannot be located.
+     */
+    public Testable locate(String id) {
+        Testable node = tryLocate(id);
+        if (node == null) {
+            throw ObjectNotFoundException.stackless("Node " + id + " not found");
+        }
+        return node;
+    }
+
+    /**
+     * Locates a node, without throwing any exception. A simulated failure of the call
+     * is reported as a node not found.
+     *
+     * @param id Identifier of the node
+     * @return The node, or {@code null} if it cannot be located
+     */
+    public Testable tryLocate(String id) {
+        if (!call()) {
+            return null;
+        }
+        SimulatedNode node = nodes.get(id);
+        return node != null && node.isLocatable() ? node : null;
+    }
+
+    /**
+     * Returns {@code true} if a node was detached from the tree. The check costs no
+     * latency.
+     *
+     * @param testable The node
+     * @return {@code true} if the node is stale
+     */
+    public boolean isStale(Testable testable) {
+        return !((SimulatedNode) testable).isAttached();
+    }
+
+    /**
+     * Clicks on a node.
+     *
+     * @param testable The node
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public void click(Testable testable) {
+        act(testable).click();
+    }
+
+    /**
+     * Toggles the check of a node.
+     *
+     * @param testable The node
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public void toggle(Testable testable) {
+        SimulatedNode node = act(testable);
+        node.click();
+        node.toggle();
+    }
+
+    /**
+     * Selects a node, deselecting its siblings.
+     *
+     * @param testable The node
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public void select(Testable testable) {
+        SimulatedNode node = act(testable);
+        node.click();
+        node.select();
+    }
+
+    /**
+     * Opens or closes a node.
+     *
+     * @param testable The node
+     * @param closed {@code true} to close the node
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public void setClosed(Testable testable, boolean closed) {
+        act(testable).setClosed(closed);
+        changed();
+    }
+
+    /**
+     * Returns {@code true} if a node is closed.
+     *
+     * @param testable The node
+     * @return {@code true} if the node is closed
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public boolean isClosed(Testable testable) {
+        return act(testable).isClosed();
+    }
+
+    /**
+     * Writes the value of a node.
+     *
+     * @param testable The node
+     * @param value The value
+     *
+     * @throws InvalidActionException If the action failed, or the value is not allowed.
+     */
+    public void write(Testable testable, String value) {
+        SimulatedNode node = act(testable);
+        if (node.getOptions() != null && !node.getOptions().contains(value)) {
+            throw new InvalidActionException(
+                    String.format("Value '%s' not allowed for node %s", value, node.getId()));
+        }
+        node.write(value);
+    }
+
+    /**
+     * Reads the value of a node.
+     *
+     * @param testable The node
+     * @return The value
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public String read(Testable testable) {
+        return act(testable).getValue();
+    }
+
+    /**
+     * Returns the number of rows of a table node.
+     *
+     * @param testable The node
+     * @return The number of rows
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public int getRowCount(Testable testable) {
+        return act(testable).getCells().length;
+    }
+
+    /**
+     * Returns the number of columns of a table node.
+     *
+     * @param testable The node
+     * @return The number of columns
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public int getColumnCount(Testable testable) {
+        String[][] cells = act(testable).getCells();
+        return cells.length == 0 ? 0 : cells[0].length;
+    }
+
+    /**
+     * Reads a range of cells of a table node in a single call, truncating it to the
+     * cells available.
+     *
+     * @param testable The node
+     * @param fromRow First row of the range
+     * @param rowCount Number of rows of the range
+     * @param fromCol First column of the range
+     * @param colCount Number of columns of the range
+     * @return The values of the cells, by row
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public String[][] readCells(Testable testable, int fromRow, int rowCount,
+                                int fromCol, int colCount) {
+        String[][] cells = act(testable).getCells();
+        int columns = cells.length == 0 ? 0 : cells[0].length;
+        int rows = Math.max(0, (int) Math.min((long) cells.length - fromRow, rowCount));
+        int cols = Math.max(0, (int) Math.min((long) columns - fromCol, colCount));
+        String[][] values = new String[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(cells[fromRow + i], fromCol, values[i], 0, cols);
+        }
+        return values;
+    }
+
+    /**
+     * Reloads a container node. The call costs the latency of the platform, and could
+     * fail.
+     *
+     * @param testable The node
+     *
+     * @throws InvalidActionException If the action failed.
+     */
+    public void reload(Testable testable) {
+        act(testable);
+    }
+
+    /**
+     * Does an action on a node.
+     *
+     * @param testable The node
+     * @return The node
+     *
+     * @throws InvalidActionException If the action failed, or the node was detached.
+     */
+    private SimulatedNode act(Testable testable) {
+        SimulatedNode node = (SimulatedNode) testable;
+        if (!call()) {
+            throw new InvalidActionException("Simulated failure on node " + node.getId());
+        }
+        if (!node.isAttached()) {
+            throw new InvalidActionException("Node " + node.getId() + " is detached");
+        }
+        return node;
+    }
+
+    /**
+     * Simulates a call to the platform, waiting for its latency.
+     *
+     * @return {@code false} if the call failed
+     */
+    private boolean call() {
+        calls.incrementAndGet();
+        long micros = latency.nextMicros(random);
+        boolean failed = failureRate > 0 && random.nextDouble() < failureRate;
+        // Thread.sleep has a resolution of a millisecond on many JVMs
+        long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        long remaining = end - System.nanoTime();
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = end - System.nanoTime();
+        }
+        return !failed;
+    }
+
+    /**
+     * Lazy holder of the timer of the delayed changes.
+     */
+    private static final class Timer {
+        /**
+         * Daemon thread notifying the delayed changes.
+         */
+        private static final ScheduledExecutorService INSTANCE =
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "futon-simulation-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Builder of a {@link SimulatedPlatform}.
+     */
+    public static final class Builder {
+        /**
+         * Latency of the calls.
+         */
+        private LatencyDistribution latency = LatencyDistribution.NONE;
+        /**
+         * Probability that a call fails.
+         */
+        private double failureRate;
+        /**
+         * Seed of the source of randomness.
+         */
+        private long seed;
+
+        /**
+         * Ctor.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the latency of the calls. By default, calls have no latency.
+         *
+         * @param latency The latency distribution
+         * @return The builder
+         */
+        public Builder latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Sets the probability that a call fails. By default, calls never fail.
+         *
+         * @param failureRate Probability between zero and one
+         * @return The builder
+         */
+        public Builder failureRate(double failureRate) {
+            if (failureRate < 0.0 || failureRate > 1.0) {
+                throw new IllegalArgumentException("Invalid failure rate " + failureRate);
+            }
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the source of randomness. By default, it is zero.
+         *
+         * @param seed The seed
+         * @return The builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Builds the platform.
+         *
+         * @return The platform
+         */
+        public SimulatedPlatform build() {
+            return new SimulatedPlatform(this);
+        }
+    }
+}
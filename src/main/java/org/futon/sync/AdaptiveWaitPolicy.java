@@ -0,0 +1,269 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.exceptions.ConfigurationException;
+import org.futon.utils.AtomicFile;
+import org.futon.utils.FProperties;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>A synchronization policy that learns from the observed locate latency of every
+ *    widget. A widget is identified by its class and its locator. For each widget
+ *    the policy keeps a {@link LatencyHistogram} of the time needed to find the
+ *    testable object, and uses its percentiles to set:
+ * </p>
+ * <ul>
+ *     <li>the first poll delay, that is the median latency;</li>
+ *     <li>the time budget of the action, that is a multiple of the 99th percentile,
+ *         bounded by a min budget and by the default one.</li>
+ * </ul>
+ * <p>Until a widget has enough samples, the default values are used. The model can be
+ *    persisted to a local file, so later runs start already tuned.
+ * </p>
+ *
+ * @see FProperties.Property#ADAPTIVE_ENABLED
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class AdaptiveWaitPolicy {
+    /**
+     * Separator between the identity of a widget and its buckets in the model file.
+     */
+    private static final char KEY_SEPARATOR = '\t';
+    /**
+     * Charset of the model file.
+     */
+    private static final String CHARSET = "UTF-8";
+
+    /**
+     * Histograms of the widgets, by identity.
+     */
+    private final ConcurrentMap<String, LatencyHistogram> histograms =
+            new ConcurrentHashMap<String, LatencyHistogram>();
+    /**
+     * Number of samples needed before the policy overrides the defaults.
+     */
+    private final int minSamples;
+    /**
+     * Multiplier of the 99th percentile used to compute the time budget.
+     */
+    private final double budgetFactor;
+    /**
+     * Min time budget, in milliseconds.
+     */
+    private final long minBudget;
+
+    /**
+     * Ctor.
+     *
+     * @param minSamples Number of samples needed before the policy overrides the defaults
+     * @param budgetFactor Multiplier of the 99th percentile used to compute the time budget
+     * @param minBudget Min time budget, in milliseconds
+     */
+    public AdaptiveWaitPolicy(int minSamples, double budgetFactor, long minBudget) {
+        this.minSamples = minSamples;
+        this.budgetFactor = budgetFactor;
+        this.minBudget = minBudget;
+    }
+
+    /**
+     * Creates the policy configured in the {@code futon.properties} file. If a model
+     * file is configured, the model is loaded from it and saved back when the JVM
+     * shuts down.
+     *
+     * @return The configured policy, or {@code null} if the policy is disabled
+     *
+     * @throws ConfigurationException If the configuration is not valid.
+     */
+    public static AdaptiveWaitPolicy fromProperties() {
+        FProperties props = FProperties.INSTANCE;
+        if (!props.getBoolean(FProperties.Property.ADAPTIVE_ENABLED)) {
+            return null;
+        }
+        final AdaptiveWaitPolicy policy = new AdaptiveWaitPolicy(
+                props.getInt(FProperties.Property.ADAPTIVE_MIN_SAMPLES),
+                props.getDouble(FProperties.Property.ADAPTIVE_BUDGET_FACTOR),
+                props.getLong(FProperties.Property.ADAPTIVE_MIN_BUDGET));
+        String path = props.get(FProperties.Property.ADAPTIVE_FILE);
+        if (path.length() > 0) {
+            final File file = new File(path);
+            if (file.exists()) {
+                try {
+                    policy.load(file);
+                } catch (IOException e) {
+                    throw new ConfigurationException(e);
+                }
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread("futon-adaptive-save") {
+                @Override
+                public void run() {
+                    try {
+                        policy.save(file);
+                    } catch (IOException e) {
+                        // Nothing to do: the model will be learned again
+                    }
+                }
+            });
+        }
+        return policy;
+    }
+
+    /**
+     * Records the time needed to locate a widget.
+     *
+     * @param identity Identity of the widget
+     * @param millis Locate latency, in milliseconds
+     */
+    public void record(String identity, long millis) {
+        histogram(identity).record(millis);
+    }
+
+    /**
+     * Returns the delay of the first poll after a failed locate attempt.
+     *
+     * @param identity Identity of the widget
+     * @param defaultDelay Delay to use if the widget has not enough samples
+     * @return The first poll delay, in milliseconds
+     */
+    public long firstPollDelay(String identity, long defaultDelay) {
+        LatencyHistogram histogram = histograms.get(identity);
+        if (histogram == null || histogram.getCount() < minSamples) {
+            return defaultDelay;
+        }
+        return histogram.percentile(50.0);
+    }
+
+    /**
+     * Returns the time budget of an action on a widget.
+     *
+     * @param identity Identity of the widget
+     * @param defaultBudget Budget to use if the widget has not enough samples. It is
+     *                      also the max budget returned.
+     * @return The time budget, in milliseconds
+     */
+    public long budget(String identity, long defaultBudget) {
+        LatencyHistogram histogram = histograms.get(identity);
+        if (histogram == null || histogram.getCount() < minSamples) {
+            return defaultBudget;
+        }
+        long budget = (long) (histogram.percentile(99.0) * budgetFactor);
+        return Math.min(defaultBudget, Math.max(minBudget, budget));
+    }
+
+    /**
+     * Returns the histogram of a widget, creating it if needed.
+     *
+     * @param identity Identity of the widget
+     * @return The histogram of the widget
+     */
+    private LatencyHistogram histogram(String identity) {
+        LatencyHistogram histogram = histograms.get(identity);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(identity, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Loads a model previously saved, adding its samples to the current ones.
+     *
+     * @param file The model file
+     * @throws IOException If the file can not be read
+     */
+    public void load(File file) throws IOException {
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(new FileInputStream(file), CHARSET));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.lastIndexOf(KEY_SEPARATOR);
+                if (separator <= 0) {
+                    continue;
+                }
+                LatencyHistogram histogram = histogram(line.substring(0, separator));
+                for (String bucket : line.substring(separator + 1).split(",")) {
+                    int colon = bucket.indexOf(':');
+                    if (colon <= 0) {
+                        continue;
+                    }
+                    try {
+                        int index = Integer.parseInt(bucket.substring(0, colon));
+                        long count = Long.parseLong(bucket.substring(colon + 1));
+                        if (index >= 0 && index < LatencyHistogram.BUCKETS && count > 0) {
+                            histogram.add(index, count);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Skip corrupted buckets
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Saves the model to a file. The file is first written aside and then renamed,
+     * so a concurrent run never reads a partial model.
+     *
+     * @param file The model file
+     * @throws IOException If the file can not be written
+     */
+    public void save(File file) throws IOException {
+        AtomicFile.write(file, writer -> {
+            for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write(KEY_SEPARATOR);
+                LatencyHistogram histogram = entry.getValue();
+                boolean first = true;
+                for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+                    long count = histogram.count(i);
+                    if (count > 0) {
+                        if (!first) {
+                            writer.write(',');
+                        }
+                        writer.write(i + ":" + count);
+                        first = false;
+                    }
+                }
+                writer.write(System.lineSeparator());
+            }
+        });
+    }
+}
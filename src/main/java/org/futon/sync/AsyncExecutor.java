@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.exceptions.ConfigurationException;
+import org.futon.utils.FProperties;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Executor of the asynchronous actions on widgets. By default, actions are executed
+ *    by a fixed number of daemon threads if the {@code org.futon.async.threads}
+ *    property is positive. Otherwise, every action has its own virtual thread, if the
+ *    JVM supports them, or its own daemon thread. A different executor can be set at
+ *    any time.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class AsyncExecutor {
+    /**
+     * The executor, lazily created.
+     */
+    private static volatile Executor executor;
+
+    /**
+     * Ctor.
+     */
+    private AsyncExecutor() {
+        // Empty body
+    }
+
+    /**
+     * Returns the executor of the asynchronous actions.
+     *
+     * @return The executor
+     */
+    public static Executor get() {
+        Executor current = executor;
+        if (current == null) {
+            synchronized (AsyncExecutor.class) {
+                current = executor;
+                if (current == null) {
+                    current = create();
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Sets the executor of the asynchronous actions.
+     *
+     * @param executor The executor
+     */
+    public static void set(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("The executor can not be null");
+        }
+        AsyncExecutor.executor = executor;
+    }
+
+    /**
+     * Creates the default executor.
+     *
+     * @return The default executor
+     *
+     * @throws ConfigurationException If the configuration is not valid.
+     */
+    private static ExecutorService create() {
+        int threads = FProperties.INSTANCE.getInt(FProperties.Property.ASYNC_THREADS);
+        ThreadFactory factory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "futon-async-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        if (threads > 0) {
+            return Executors.newFixedThreadPool(threads, factory);
+        }
+        ExecutorService virtual = newVirtualThreadExecutor();
+        return virtual != null ? virtual : Executors.newCachedThreadPool(factory);
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for every task. Virtual threads
+     * are looked up reflectively, so futon runs also on JVMs not supporting them.
+     *
+     * @return A new executor, or {@code null} if the JVM does not support virtual threads
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // Virtual threads are a preview feature not enabled
+            return null;
+        }
+    }
+}
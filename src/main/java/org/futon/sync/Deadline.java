@@ -0,0 +1,93 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+/**
+ * A wall-clock time budget. The deadline is measured using
+ * {@link System#nanoTime()}, so it is not affected by system clock changes.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Deadline {
+    /**
+     * Instant in which the budget started.
+     */
+    private final long start;
+    /**
+     * Instant in which the budget expires.
+     */
+    private final long expiration;
+
+    /**
+     * Ctor.
+     *
+     * @param start Start instant, in nanoseconds
+     * @param budget Budget, in nanoseconds
+     */
+    private Deadline(long start, long budget) {
+        this.start = start;
+        this.expiration = start + budget;
+    }
+
+    /**
+     * Creates a deadline expiring after {@code millis} milliseconds from now.
+     *
+     * @param millis The time budget in milliseconds
+     * @return A new deadline
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime(), millis * 1000000L);
+    }
+
+    /**
+     * Returns {@code true} if the time budget is over.
+     *
+     * @return {@code true} if the time budget is over
+     */
+    public boolean expired() {
+        return System.nanoTime() - expiration >= 0;
+    }
+
+    /**
+     * Returns the milliseconds remaining before the expiration, rounded up, or zero.
+     * Waiting for the remaining milliseconds is enough to reach the expiration.
+     *
+     * @return The remaining milliseconds
+     */
+    public long remainingMillis() {
+        long remaining = expiration - System.nanoTime();
+        return remaining > 0 ? (remaining + 999999L) / 1000000L : 0L;
+    }
+
+    /**
+     * Returns the milliseconds elapsed since the creation of the deadline.
+     *
+     * @return The elapsed milliseconds
+     */
+    public long elapsedMillis() {
+        return (System.nanoTime() - start) / 1000000L;
+    }
+}
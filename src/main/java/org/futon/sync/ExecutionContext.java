@@ -0,0 +1,284 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.actions.Reloadable;
+import org.futon.utils.Waiter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * <p>Context of the execution of one or more actions on widgets. The context sets the
+ *    time budget of every synchronized action executed inside it, and allows to cancel
+ *    them: a cancelled action stops its retry loop as soon as possible, interrupting
+ *    the current pause, and throws a {@link java.util.concurrent.CancellationException}.
+ * </p>
+ * <p>The context carries also the state of a single execution, that must not be
+ *    stored in widgets: the value to set on an editable widget, and possibly the
+ *    waiter and the container to use instead of the ones of the widget. Thus, widgets
+ *    are immutable definitions that can be shared among threads, and every thread
+ *    executes actions on them inside its own context.
+ * </p>
+ * <p>A context is bound to the thread executing it, and it is available to widgets
+ *    and to the synchronization engine through {@link #current()}. Nested contexts,
+ *    created using the {@code with} methods, inherit the state they do not override,
+ *    and are cancelled together with their parent.
+ * </p>
+ *
+ * @see Synchronizer
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ExecutionContext {
+    /**
+     * Context bound to the current thread.
+     */
+    private static final ThreadLocal<ExecutionContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Parent context, if any.
+     */
+    private final ExecutionContext parent;
+    /**
+     * Time budget of the actions, in milliseconds, or zero for the default one.
+     */
+    private final long timeout;
+    /**
+     * Waiter to use instead of the one of the widget, if any.
+     */
+    private final Waiter waiter;
+    /**
+     * Container to use instead of the one of the widget, if any.
+     */
+    private final Reloadable container;
+    /**
+     * Value to set on an editable widget, if any.
+     */
+    private final String value;
+    /**
+     * {@code true} if the context was cancelled.
+     */
+    private volatile boolean cancelled;
+    /**
+     * Thread executing the context, if any. Guarded by {@code this}.
+     */
+    private Thread thread;
+
+    /**
+     * Ctor.
+     *
+     * @param timeout Time budget of the actions, in milliseconds, or zero for the
+     *                default one
+     */
+    public ExecutionContext(long timeout) {
+        this(null, timeout, null, null, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param timeout Time budget of the actions, in milliseconds, or zero for the
+     *                default one
+     * @param waiter Waiter to use instead of the one of the widgets (it can be
+     *               {@code null})
+     * @param container Container to use instead of the one of the widgets (it can be
+     *                  {@code null})
+     */
+    public ExecutionContext(long timeout, Waiter waiter, Reloadable container) {
+        this(null, timeout, waiter, container, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param parent Parent context, if any
+     * @param timeout Time budget of the actions, in milliseconds, or zero for the
+     *                default one
+     * @param waiter Waiter to use instead of the one of the widgets
+     * @param container Container to use instead of the one of the widgets
+     * @param value Value to set on an editable widget
+     */
+    private ExecutionContext(ExecutionContext parent, long timeout, Waiter waiter,
+                             Reloadable container, String value) {
+        this.parent = parent;
+        this.timeout = Math.max(0L, timeout);
+        this.waiter = waiter;
+        this.container = container;
+        this.value = value;
+    }
+
+    /**
+     * Returns a nested context of the current one, carrying the value to set on an
+     * editable widget. If there is no current context, the new one has only the value.
+     *
+     * @param value The value to set
+     * @return A new context
+     */
+    public static ExecutionContext withValue(String value) {
+        ExecutionContext current = CURRENT.get();
+        if (current == null) {
+            return new ExecutionContext(null, 0L, null, null, value);
+        }
+        return new ExecutionContext(current, current.timeout, current.waiter,
+                                    current.container, value);
+    }
+
+    /**
+     * Executes an {@code action} asynchronously on the {@code executor}, inside a new
+     * context. Cancelling the returned future cancels the context.
+     *
+     * @param action The action to execute
+     * @param timeout Time budget of the actions, in milliseconds, or zero for the
+     *                default one
+     * @param executor The executor
+     * @param <T> The type of the result of the action
+     * @return The future result of the action
+     */
+    public static <T> CompletableFuture<T> submit(final Supplier<T> action, long timeout,
+                                                  Executor executor) {
+        final ExecutionContext context = new ExecutionContext(timeout);
+        final CompletableFuture<T> future = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                context.cancel();
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(context.execute(action));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Returns the context bound to the current thread.
+     *
+     * @return The current context, or {@code null}
+     */
+    public static ExecutionContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the time budget of the actions.
+     *
+     * @return The time budget, in milliseconds, or zero for the default one
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns the waiter to use instead of the one of the widgets.
+     *
+     * @return The waiter, or {@code null}
+     */
+    public Waiter getWaiter() {
+        return waiter;
+    }
+
+    /**
+     * Returns the container to use instead of the one of the widgets.
+     *
+     * @return The container, or {@code null}
+     */
+    public Reloadable getContainer() {
+        return container;
+    }
+
+    /**
+     * Returns the value to set on an editable widget.
+     *
+     * @return The value, or {@code null}
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns {@code true} if the context, or one of its parents, was cancelled.
+     *
+     * @return {@code true} if the context was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled || (parent != null && parent.isCancelled());
+    }
+
+    /**
+     * Cancels the context, interrupting the thread executing it, if any.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Executes an {@code action} inside the context, on the current thread.
+     *
+     * @param action The action to execute
+     * @param <T> The type of the result of the action
+     * @return The result of the action
+     */
+    public <T> T execute(Supplier<T> action) {
+        ExecutionContext previous = CURRENT.get();
+        synchronized (this) {
+            thread = Thread.currentThread();
+        }
+        CURRENT.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+            synchronized (this) {
+                thread = null;
+            }
+            if (cancelled) {
+                // The interrupt was meant only for the cancelled action
+                Thread.interrupted();
+            }
+        }
+    }
+}
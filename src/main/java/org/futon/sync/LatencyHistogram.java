@@ -0,0 +1,200 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A streaming histogram of latencies, expressed in any unit: the adaptive policy
+ *    records milliseconds, the metrics of the widgets microseconds. Buckets are
+ *    log-linear, like in HDR histograms: values under 16 have their own bucket,
+ *    then every power of two is split in 8 sub-buckets. Thus, percentiles are
+ *    estimated with a relative error lower than 12.5%, using a fixed and small
+ *    amount of memory.
+ * </p>
+ * <p>Recording is lock-free and can be done concurrently. The totals are striped
+ *    adders, so threads recording at the same time do not contend on them.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LatencyHistogram {
+    /**
+     * Values having their own bucket.
+     */
+    private static final int LINEAR_BUCKETS = 16;
+    /**
+     * Sub-buckets of every power of two, as a power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    /**
+     * Number of buckets, enough to cover every positive int. Greater values are
+     * counted in the bucket of the greatest int.
+     */
+    static final int BUCKETS = LINEAR_BUCKETS + (31 - 4 + 1) * (1 << SUB_BUCKET_BITS);
+
+    /**
+     * Counts of the buckets.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    /**
+     * Total number of recorded values.
+     */
+    private final LongAdder total = new LongAdder();
+    /**
+     * Sum of the recorded values.
+     */
+    private final LongAdder sum = new LongAdder();
+    /**
+     * Max recorded value.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records a latency.
+     *
+     * @param value The latency
+     */
+    public void record(long value) {
+        long latency = Math.max(0L, value);
+        counts.incrementAndGet(indexOf(latency));
+        total.increment();
+        sum.add(latency);
+        max.accumulate(latency);
+    }
+
+    /**
+     * Adds {@code count} values to the bucket at {@code index}. The values are taken
+     * as equal to the upper bound of the bucket.
+     *
+     * @param index Index of the bucket
+     * @param count Number of values
+     */
+    void add(int index, long count) {
+        counts.addAndGet(index, count);
+        total.add(count);
+        sum.add(upperBound(index) * count);
+        max.accumulate(upperBound(index));
+    }
+
+    /**
+     * Returns the count of the bucket at {@code index}.
+     *
+     * @param index Index of the bucket
+     * @return The count of the bucket
+     */
+    long count(int index) {
+        return counts.get(index);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return The number of recorded values
+     */
+    public long getCount() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return The mean, or zero if nothing was recorded
+     */
+    public long getMean() {
+        long count = total.sum();
+        return count == 0L ? 0L : sum.sum() / count;
+    }
+
+    /**
+     * Returns the max recorded value.
+     *
+     * @return The max value, or zero if nothing was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns an estimate of the {@code percentile} of the recorded values, that is
+     * the upper bound of the bucket containing it, capped by the max value.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The estimated value, or zero if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        // Buckets are counted before the total, so they never miss a counted value
+        long count = total.sum();
+        if (count == 0) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                // The bucket of the greatest int also counts the greater values
+                long bound = upperBound(i);
+                return bound < Integer.MAX_VALUE ? Math.min(bound, max.get()) : max.get();
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the index of the bucket containing {@code latency}.
+     *
+     * @param latency A latency
+     * @return The index of the bucket
+     */
+    static int indexOf(long latency) {
+        int value = (int) Math.max(0L, Math.min(Integer.MAX_VALUE, latency));
+        if (value < LINEAR_BUCKETS) {
+            return value;
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int sub = (value >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return LINEAR_BUCKETS + ((exponent - 4) << SUB_BUCKET_BITS) + sub;
+    }
+
+    /**
+     * Returns the greatest value contained in the bucket at {@code index}.
+     *
+     * @param index Index of the bucket
+     * @return The upper bound of the bucket
+     */
+    static long upperBound(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int exponent = ((index - LINEAR_BUCKETS) >> SUB_BUCKET_BITS) + 4;
+        int sub = (index - LINEAR_BUCKETS) & ((1 << SUB_BUCKET_BITS) - 1);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((1L << SUB_BUCKET_BITS) + sub) * width + width - 1;
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>Runs many test scripts at the same time. Every script is executed inside its own
+ *    {@link ExecutionContext}, so scripts can share the same widgets: widgets are
+ *    immutable definitions, and the state of every execution lives in its context.
+ * </p>
+ * <p>By default, every script has its own virtual thread, if the JVM supports them,
+ *    so thousands of scripts can wait on their pages without needing an OS thread
+ *    each. The synchronization engine never blocks while holding a monitor, so
+ *    waiting scripts do not pin their carrier threads.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ScriptRunner implements AutoCloseable {
+    /**
+     * Executor of the scripts.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Creates a runner executing every script in its own virtual thread or, if the JVM
+     * does not support them, in its own thread.
+     */
+    public ScriptRunner() {
+        this(defaultExecutor());
+    }
+
+    /**
+     * Creates a runner executing the scripts on an {@code executor}.
+     *
+     * @param executor Executor of the scripts
+     */
+    public ScriptRunner(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Creates the default executor of the scripts.
+     *
+     * @return The default executor
+     */
+    private static ExecutorService defaultExecutor() {
+        ExecutorService virtual = AsyncExecutor.newVirtualThreadExecutor();
+        return virtual != null ? virtual : Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Submits a script.
+     *
+     * @param script The script
+     * @param <T> The type of the result of the script
+     * @return The future result of the script. Cancelling it stops the script as soon
+     *         as it synchronizes on a widget.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> script) {
+        return submit(script, 0L);
+    }
+
+    /**
+     * Submits a script, setting the time budget of every action it does.
+     *
+     * @param script The script
+     * @param timeout Time budget of the actions, in milliseconds, or zero for the
+     *                default one
+     * @param <T> The type of the result of the script
+     * @return The future result of the script. Cancelling it stops the script as soon
+     *         as it synchronizes on a widget.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> script, long timeout) {
+        return ExecutionContext.submit(script, timeout, executor);
+    }
+
+    /**
+     * Submits a script without result.
+     *
+     * @param script The script
+     * @return The future completion of the script
+     */
+    public CompletableFuture<Void> submit(final Runnable script) {
+        return submit(() -> {
+            script.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits for the completion of the scripts already submitted, refusing new ones.
+     *
+     * @param timeout Max time to wait, in milliseconds
+     * @return {@code true} if all the scripts completed
+     * @throws InterruptedException If the thread is interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refuses new scripts, letting the ones already submitted complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
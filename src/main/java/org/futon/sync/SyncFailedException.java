@@ -0,0 +1,79 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.exceptions.ObjectNotFoundException;
+
+/**
+ * The {@code SyncFailedException} is thrown by a {@link Synchronizer} when a
+ * synchronized action could not be completed. It reports the phase that ran
+ * out of time and the number of attempts done.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class SyncFailedException extends ObjectNotFoundException {
+    /**
+     * The phase of the synchronization that ran out of time.
+     */
+    private final SyncPhase phase;
+    /**
+     * Number of attempts done by the synchronization.
+     */
+    private final int attempts;
+
+    /**
+     * Ctor.
+     *
+     * @param phase The phase that ran out of time.
+     * @param message Exception's detail, summarizing the attempts.
+     * @param cause The last failure of the synchronization, if any.
+     * @param attempts The number of attempts done.
+     */
+    public SyncFailedException(SyncPhase phase, String message, Throwable cause,
+                               int attempts) {
+        super(message, cause);
+        this.phase = phase;
+        this.attempts = attempts;
+    }
+
+    /**
+     * Returns the synchronization phase that ran out of time.
+     *
+     * @return The phase that ran out of time.
+     */
+    public SyncPhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Returns the number of attempts done by the synchronization.
+     *
+     * @return The number of attempts.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
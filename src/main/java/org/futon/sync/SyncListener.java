@@ -0,0 +1,100 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.Testable;
+import org.futon.actions.Reloadable;
+
+/**
+ * <p>Listener of the retry loop of the synchronization of widgets, for example to
+ *    profile latencies or to detect flaky widgets. Listeners are registered globally
+ *    through {@link SyncListeners#global()}, or on a container widget, receiving the
+ *    events of all the widgets inside it.
+ * </p>
+ * <p>Listeners are called by the thread doing the action, and should return quickly.
+ *    An exception thrown by a listener is ignored. All the methods do nothing by
+ *    default.
+ * </p>
+ *
+ * @see SyncListeners
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SyncListener {
+    /**
+     * Called before every attempt.
+     *
+     * @param identity Identity of the widget
+     * @param phase Phase of the attempt
+     * @param attempt Number of the attempt, starting from 1
+     */
+    public default void onAttempt(String identity, SyncPhase phase, int attempt) {
+    }
+
+    /**
+     * Called after a failed attempt, before waiting for the next one.
+     *
+     * @param identity Identity of the widget
+     * @param phase Phase of the failed attempt
+     * @param attempt Number of the failed attempt
+     * @param failure The failure of the attempt, or {@code null} if the testable object
+     *                was not found
+     */
+    public default void onRetry(String identity, SyncPhase phase, int attempt,
+                                RuntimeException failure) {
+    }
+
+    /**
+     * Called before the container of the widget is reloaded.
+     *
+     * @param identity Identity of the widget
+     * @param container The container to reload
+     * @param attempt Number of the last failed attempt
+     */
+    public default void onReload(String identity, Reloadable container, int attempt) {
+    }
+
+    /**
+     * Called when the action succeeded.
+     *
+     * @param identity Identity of the widget
+     * @param testable The testable object on which the action was done
+     * @param attempts Number of attempts done
+     * @param elapsedNanos Duration of the action, in nanoseconds
+     */
+    public default void onResolved(String identity, Testable testable, int attempts,
+                                   long elapsedNanos) {
+    }
+
+    /**
+     * Called when the action could not be completed, before the exception is thrown.
+     *
+     * @param identity Identity of the widget
+     * @param failure The exception that will be thrown
+     */
+    public default void onGiveUp(String identity, SyncFailedException failure) {
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A set of {@link SyncListener}, stored in a copy-on-write array: registering a
+ *    listener copies the array, while notifying the listeners only reads it, without
+ *    locking nor allocating.
+ * </p>
+ * <p>Every registration increments a global version, so that widgets can cache the
+ *    listeners of all their containers until any registration changes.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SyncListeners {
+    /**
+     * No listener.
+     */
+    static final SyncListener[] NONE = new SyncListener[0];
+    /**
+     * Listeners registered globally.
+     */
+    private static final SyncListeners GLOBAL = new SyncListeners();
+    /**
+     * Version of all the registrations.
+     */
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    /**
+     * The listeners.
+     */
+    private volatile SyncListener[] listeners = NONE;
+
+    /**
+     * Returns the listeners of all the widgets.
+     *
+     * @return The global listeners
+     */
+    public static SyncListeners global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the version of all the registrations, incremented every time a listener
+     * is added or removed anywhere.
+     *
+     * @return The version of the registrations
+     */
+    public static long version() {
+        return VERSION.get();
+    }
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener The listener
+     */
+    public synchronized void add(SyncListener listener) {
+        SyncListener[] current = listeners;
+        SyncListener[] updated = new SyncListener[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, current.length);
+        updated[current.length] = listener;
+        listeners = updated;
+        VERSION.incrementAndGet();
+    }
+
+    /**
+     * Removes a listener, if registered.
+     *
+     * @param listener The listener
+     */
+    public synchronized void remove(SyncListener listener) {
+        SyncListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                SyncListener[] updated = new SyncListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                VERSION.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if no listener is registered.
+     *
+     * @return {@code true} if there are no listeners
+     */
+    public boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+    /**
+     * Appends the listeners to {@code others}.
+     *
+     * @param others Other listeners
+     * @return The listeners of both, or {@code others} if there are no listeners
+     */
+    public SyncListener[] appendTo(SyncListener[] others) {
+        SyncListener[] current = listeners;
+        if (current.length == 0) {
+            return others;
+        }
+        SyncListener[] all = new SyncListener[others.length + current.length];
+        System.arraycopy(others, 0, all, 0, others.length);
+        System.arraycopy(current, 0, all, others.length, current.length);
+        return all;
+    }
+}
@@ -0,0 +1,293 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.utils.FProperties;
+
+/**
+ * <p>Immutable settings of the synchronization of a widget: the time budget of an
+ *    action, the shorter time budget of a check of the existence of the widget, the
+ *    max number of attempts and the number of failed attempts after which the
+ *    container is reloaded.
+ * </p>
+ * <p>Settings form a hierarchy: the global defaults read from the
+ *    {@code futon.properties} file, the settings of the containers, and the ones of
+ *    a single widget. A setting left unset is inherited from the parent level. A
+ *    widget resolves its settings at construction, and again only if the properties
+ *    change, so reading them during an action costs a field access.
+ * </p>
+ * <pre>
+ *     SyncSettings slow = SyncSettings.inherited().withTimeout(120000L);
+ * </pre>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SyncSettings {
+    /**
+     * Value of a setting inherited from the parent level.
+     */
+    private static final int UNSET = 0;
+    /**
+     * Settings inheriting everything.
+     */
+    private static final SyncSettings INHERITED =
+            new SyncSettings(UNSET, UNSET, UNSET, UNSET);
+    /**
+     * Global defaults, configured in the {@code futon.properties} file, together with
+     * the snapshot of the properties they were read from.
+     */
+    private static volatile Defaults defaults;
+
+    /**
+     * Time budget of a single action, in milliseconds.
+     */
+    private final long timeout;
+    /**
+     * Time budget of a check of the existence of the widget, in milliseconds.
+     */
+    private final long existsTimeout;
+    /**
+     * Max number of attempts inside the time budget.
+     */
+    private final int maxRetries;
+    /**
+     * Number of failed attempts after which the container is reloaded.
+     */
+    private final int reloadRange;
+
+    /**
+     * Ctor.
+     *
+     * @param timeout Time budget of a single action, in milliseconds
+     * @param existsTimeout Time budget of a check of the existence, in milliseconds
+     * @param maxRetries Max number of attempts inside the time budget
+     * @param reloadRange Number of failed attempts after which the container is reloaded
+     */
+    private SyncSettings(long timeout, long existsTimeout, int maxRetries, int reloadRange) {
+        this.timeout = timeout;
+        this.existsTimeout = existsTimeout;
+        this.maxRetries = maxRetries;
+        this.reloadRange = reloadRange;
+    }
+
+    /**
+     * Returns the global defaults, configured in the {@code futon.properties} file.
+     *
+     * @return The global settings
+     */
+    public static SyncSettings defaults() {
+        return from(FProperties.INSTANCE.snapshot());
+    }
+
+    /**
+     * Returns the global defaults configured in a snapshot of the properties. The
+     * settings are read again only if the snapshot changes.
+     *
+     * @param snapshot The properties
+     * @return The global settings
+     */
+    public static SyncSettings from(FProperties.Snapshot snapshot) {
+        Defaults current = defaults;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Defaults(new SyncSettings(
+                    Math.max(1L, snapshot.getLong(FProperties.Property.SYNC_TIMEOUT)),
+                    Math.max(1L, snapshot.getLong(FProperties.Property.EXISTS_TIMEOUT)),
+                    Math.max(1, snapshot.getInt(FProperties.Property.MAX_RETRIES)),
+                    Math.max(1, snapshot.getInt(FProperties.Property.RELOAD_RANGE))),
+                    snapshot);
+            defaults = current;
+        }
+        return current.settings;
+    }
+
+    /**
+     * Returns settings inheriting every value from the parent level, to be overridden
+     * through the {@code with} methods.
+     *
+     * @return Settings inheriting everything
+     */
+    public static SyncSettings inherited() {
+        return INHERITED;
+    }
+
+    /**
+     * Returns a copy of the settings with a different time budget.
+     *
+     * @param timeout Time budget of a single action, in milliseconds
+     * @return The new settings
+     *
+     * @throws IllegalArgumentException If the time budget is not positive.
+     */
+    public SyncSettings withTimeout(long timeout) {
+        return new SyncSettings(positive(timeout, "timeout"), existsTimeout, maxRetries,
+                                reloadRange);
+    }
+
+    /**
+     * Returns a copy of the settings with a different time budget of the checks of
+     * the existence of the widget.
+     *
+     * @param existsTimeout Time budget of a check of the existence, in milliseconds
+     * @return The new settings
+     *
+     * @throws IllegalArgumentException If the time budget is not positive.
+     */
+    public SyncSettings withExistsTimeout(long existsTimeout) {
+        return new SyncSettings(timeout, positive(existsTimeout, "existsTimeout"), maxRetries,
+                                reloadRange);
+    }
+
+    /**
+     * Returns a copy of the settings with a different max number of attempts.
+     *
+     * @param maxRetries Max number of attempts inside the time budget
+     * @return The new settings
+     *
+     * @throws IllegalArgumentException If the number is not positive.
+     */
+    public SyncSettings withMaxRetries(int maxRetries) {
+        return new SyncSettings(timeout, existsTimeout, (int) positive(maxRetries, "maxRetries"),
+                                reloadRange);
+    }
+
+    /**
+     * Returns a copy of the settings with a different reload range.
+     *
+     * @param reloadRange Number of failed attempts after which the container is reloaded
+     * @return The new settings
+     *
+     * @throws IllegalArgumentException If the number is not positive.
+     */
+    public SyncSettings withReloadRange(int reloadRange) {
+        return new SyncSettings(timeout, existsTimeout, maxRetries,
+                                (int) positive(reloadRange, "reloadRange"));
+    }
+
+    /**
+     * Resolves the settings against the ones of the parent level, taking from the
+     * parent every value left unset.
+     *
+     * @param parent Settings of the parent level, fully resolved
+     * @return The resolved settings
+     */
+    public SyncSettings inherit(SyncSettings parent) {
+        if (timeout != UNSET && existsTimeout != UNSET && maxRetries != UNSET
+                && reloadRange != UNSET) {
+            return this;
+        }
+        if (this == INHERITED) {
+            return parent;
+        }
+        return new SyncSettings(timeout != UNSET ? timeout : parent.timeout,
+                                existsTimeout != UNSET ? existsTimeout : parent.existsTimeout,
+                                maxRetries != UNSET ? maxRetries : parent.maxRetries,
+                                reloadRange != UNSET ? reloadRange : parent.reloadRange);
+    }
+
+    /**
+     * Returns the time budget of a single action.
+     *
+     * @return The time budget, in milliseconds, or zero if inherited
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns the time budget of a check of the existence of the widget.
+     *
+     * @return The time budget, in milliseconds, or zero if inherited
+     */
+    public long getExistsTimeout() {
+        return existsTimeout;
+    }
+
+    /**
+     * Returns the max number of attempts inside the time budget.
+     *
+     * @return The max number of attempts, or zero if inherited
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Returns the number of failed attempts after which the container is reloaded.
+     *
+     * @return The reload range, or zero if inherited
+     */
+    public int getReloadRange() {
+        return reloadRange;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncSettings[timeout=" + timeout + ", existsTimeout=" + existsTimeout
+               + ", maxRetries=" + maxRetries
+               + ", reloadRange=" + reloadRange + "]";
+    }
+
+    /**
+     * The global defaults, together with the properties they were read from.
+     */
+    private static final class Defaults {
+        /**
+         * The settings.
+         */
+        private final SyncSettings settings;
+        /**
+         * The properties.
+         */
+        private final FProperties.Snapshot snapshot;
+
+        /**
+         * Ctor.
+         *
+         * @param settings The settings
+         * @param snapshot The properties
+         */
+        private Defaults(SyncSettings settings, FProperties.Snapshot snapshot) {
+            this.settings = settings;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Checks that a setting is positive.
+     *
+     * @param value The value of the setting
+     * @param name The name of the setting
+     * @return The value
+     *
+     * @throws IllegalArgumentException If the value is not positive.
+     */
+    private static long positive(long value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.Testable;
+
+/**
+ * Target of a synchronized action: it knows how to locate a testable object
+ * and how to act on it.
+ *
+ * @see Synchronizer
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SyncTarget {
+    /**
+     * Locates the testable object. A testable object not available yet should be
+     * signalled returning {@code null}, which costs nothing, rather than throwing an
+     * exception.
+     *
+     * @return A testable object, or {@code null} if not found.
+     */
+    public Testable locate();
+
+    /**
+     * Does the operation on the testable object previously located.
+     *
+     * @param testable The testable object.
+     */
+    public void act(Testable testable);
+
+    /**
+     * Returns {@code true} if the testable object returned by the last locate was
+     * reused from a cache, without querying the platform. The latency of such a locate
+     * is not learned by the adaptive policy nor recorded into the metrics of the widget.
+     * By default, no locate is served by a cache.
+     *
+     * @return {@code true} if the last locate was served by a cache.
+     */
+    public default boolean isCached() {
+        return false;
+    }
+}
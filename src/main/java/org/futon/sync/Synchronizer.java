@@ -0,0 +1,614 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.Testable;
+import org.futon.actions.Reloadable;
+import org.futon.metrics.WidgetMetrics;
+import org.futon.utils.BackoffWaiter;
+import org.futon.utils.EventWaiter;
+import org.futon.utils.Waiter;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * <p>Synchronization engine of a widget's action. The engine runs a single retry
+ *    loop bounded by a wall-clock time budget. Inside the budget, the action is
+ *    divided in two phases: first the testable object is located, then the
+ *    operation is done on it. If the operation fails, the testable object is
+ *    located again, because the failure could be due to a stale object.
+ * </p>
+ * <p>A testable object not found yet is signalled by a {@code null} locate, so a
+ *    retry allocates nothing. The exception reporting a failed action is built
+ *    once, at the end, summarizing the attempts. The engine keeps no state between
+ *    two actions, so it can be reused, also by concurrent actions.
+ * </p>
+ * <p>Between two attempts the engine waits using the policy of the {@link Waiter},
+ *    and every {@code reloadRange} failed attempts a container is reloaded: first the
+ *    innermost one, then, if reloading it was not enough, its containers, up to the
+ *    outermost one. The waiter is told the number of the attempt, the elapsed time,
+ *    the time left and the version of the container at the beginning of the attempt:
+ *    a {@link BackoffWaiter} grows its pauses without going beyond the deadline, and
+ *    an {@link EventWaiter} parks the engine until the container changes or the
+ *    deadline expires.
+ * </p>
+ * <p>If an {@link AdaptiveWaitPolicy} is given, the time budget and the first poll
+ *    delay are the ones learned for the widget, and every successful locate done on
+ *    the platform is recorded into the policy. Locates served by a cache are not.
+ * </p>
+ * <p>If {@link WidgetMetrics} are given, the latency of the locates done on the
+ *    platform, the duration of the action, the retries and the failures are recorded
+ *    into them.
+ * </p>
+ * <p>The {@link SyncListener}s given are notified of every attempt, retry, reload
+ *    and of the outcome of the action. Notifying them allocates nothing.
+ * </p>
+ * <p>An {@link ExecutionContext} can override the time budget, unless the action
+ *    gives a max budget, and can cancel the action. The action is cancelled also if
+ *    the executing thread is interrupted.
+ * </p>
+ *
+ * @see SyncTarget
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Synchronizer {
+    /**
+     * Chain of containers of a widget without containers.
+     */
+    private static final Reloadable[] NO_CONTAINERS = new Reloadable[0];
+
+    /**
+     * Waiting policy between two attempts.
+     */
+    private final Waiter waiter;
+    /**
+     * Chain of the containers to reload, from the innermost to the outermost one.
+     */
+    private final Reloadable[] containers;
+    /**
+     * Reloads a container of the chain.
+     */
+    private final Consumer<Reloadable> reloader;
+    /**
+     * Time budget of a single action, in milliseconds.
+     */
+    private final long timeout;
+    /**
+     * Max number of attempts inside the time budget.
+     */
+    private final int maxRetries;
+    /**
+     * Number of failed attempts after which the container is reloaded.
+     */
+    private final int reloadRange;
+    /**
+     * Adaptive policy learning the locate latency (it can be {@code null}).
+     */
+    private final AdaptiveWaitPolicy policy;
+    /**
+     * Identity of the widget inside the adaptive policy.
+     */
+    private final String identity;
+    /**
+     * Metrics of the widget (it can be {@code null}).
+     */
+    private final WidgetMetrics metrics;
+    /**
+     * Listeners of the action.
+     */
+    private final SyncListener[] listeners;
+
+    /**
+     * Ctor.
+     *
+     * @param builder The builder of the engine
+     */
+    private Synchronizer(Builder builder) {
+        this.waiter = builder.waiter;
+        this.containers = builder.containers;
+        this.reloader = builder.reloader;
+        this.timeout = builder.timeout;
+        this.maxRetries = builder.maxRetries;
+        this.reloadRange = builder.reloadRange;
+        this.policy = builder.policy;
+        this.identity = builder.identity;
+        this.metrics = builder.metrics;
+        this.listeners = builder.listeners;
+    }
+
+    /**
+     * Creates a builder of an engine using the time budget, the max number of attempts
+     * and the reload range of the {@code settings}. A value left unset in the settings
+     * is taken from the global defaults.
+     *
+     * @param settings The synchronization settings
+     * @return The builder
+     */
+    public static Builder builder(SyncSettings settings) {
+        return new Builder(settings.inherit(SyncSettings.defaults()));
+    }
+
+    /**
+     * Locates the testable object of the {@code target} and acts on it, retrying until
+     * the time budget or the max number of attempts is over. At least one attempt
+     * is always done.
+     *
+     * @param target The target of the action
+     * @return The testable object on which the action was done
+     *
+     * @throws SyncFailedException If the action could not be completed. The
+     *         exception reports the phase and the limit that stopped it.
+     */
+    public Testable run(SyncTarget target) {
+        return run(target, null);
+    }
+
+    /**
+     * Locates the testable object of the {@code target} and acts on it inside an
+     * execution context.
+     *
+     * @param target The target of the action
+     * @param context The execution context (it can be {@code null})
+     * @return The testable object on which the action was done
+     *
+     * @throws SyncFailedException If the action could not be completed. The
+     *         exception reports the phase and the limit that stopped it.
+     * @throws CancellationException If the action was cancelled.
+     *
+     * @see #run(SyncTarget)
+     */
+    public Testable run(SyncTarget target, ExecutionContext context) {
+        return run(target, context, 0L);
+    }
+
+    /**
+     * Locates the testable object of the {@code target} and acts on it inside an
+     * execution context, never spending more than {@code maxBudget}, whatever the
+     * time budget given by the context.
+     *
+     * @param target The target of the action
+     * @param context The execution context (it can be {@code null})
+     * @param maxBudget Max time budget of the action, in milliseconds, or zero for no
+     *                  limit
+     * @return The testable object on which the action was done
+     *
+     * @throws SyncFailedException If the action could not be completed. The
+     *         exception reports the phase and the limit that stopped it.
+     * @throws CancellationException If the action was cancelled.
+     *
+     * @see #run(SyncTarget, ExecutionContext)
+     */
+    public Testable run(SyncTarget target, ExecutionContext context, long maxBudget) {
+        long budget = policy != null ? policy.budget(identity, timeout) : timeout;
+        if (context != null && context.getTimeout() > 0) {
+            budget = context.getTimeout();
+        }
+        if (maxBudget > 0L) {
+            budget = Math.min(budget, maxBudget);
+        }
+        long start = System.nanoTime();
+        Deadline deadline = Deadline.after(budget);
+        SyncPhase phase = SyncPhase.LOCATE;
+        Testable testable = null;
+        RuntimeException last = null;
+        int attempts = 0;
+        int failures = 0;
+        int reloads = 0;
+        long delay = 0L;
+        do {
+            checkCancelled(context);
+            long version = waiter != null ? waiter.version() : 0L;
+            RuntimeException failed = null;
+            if (listeners.length > 0) {
+                onAttempt(testable == null ? SyncPhase.LOCATE : SyncPhase.ACT, attempts + 1);
+            }
+            try {
+                if (testable == null) {
+                    phase = SyncPhase.LOCATE;
+                    testable = target.locate();
+                    if (testable != null && !target.isCached()) {
+                        // Only the locates done on the platform tell its latency
+                        if (policy != null) {
+                            policy.record(identity, deadline.elapsedMillis());
+                        }
+                        if (metrics != null) {
+                            metrics.locate((System.nanoTime() - start) / 1000L);
+                        }
+                    }
+                }
+                if (testable != null) {
+                    phase = SyncPhase.ACT;
+                    target.act(testable);
+                    if (metrics != null) {
+                        metrics.action((System.nanoTime() - start) / 1000L, attempts + 1,
+                                       true, false);
+                    }
+                    if (listeners.length > 0) {
+                        onResolved(testable, attempts + 1, System.nanoTime() - start);
+                    }
+                    return testable;
+                }
+                // Not found yet: nothing is allocated
+                attempts++;
+            } catch (CancellationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                last = e;
+                failed = e;
+                attempts++;
+                failures++;
+                // A failed operation could be due to a stale object
+                testable = null;
+            }
+            if (attempts < maxRetries && !deadline.expired()) {
+                if (listeners.length > 0) {
+                    onRetry(phase, attempts, failed);
+                }
+                delay = pause(attempts, deadline, delay, version);
+                checkCancelled(context);
+                if (containers.length > 0 && attempts % reloadRange == 0) {
+                    // Reloading the previous container was not enough: escalate
+                    Reloadable container =
+                            containers[Math.min(reloads++, containers.length - 1)];
+                    if (listeners.length > 0) {
+                        onReload(container, attempts);
+                    }
+                    reloader.accept(container);
+                }
+            }
+        } while (attempts < maxRetries && !deadline.expired());
+        // The loop stops on the first limit hit: the attempts, or else the time budget
+        boolean timedOut = attempts < maxRetries;
+        if (metrics != null) {
+            metrics.action((System.nanoTime() - start) / 1000L, attempts, false, timedOut);
+        }
+        SyncFailedException failure =
+                failure(phase, deadline, budget, timedOut, attempts, failures, last);
+        if (listeners.length > 0) {
+            onGiveUp(failure);
+        }
+        throw failure;
+    }
+
+    /**
+     * Builds the exception reporting that the action could not be completed. The
+     * message tells which limit was hit, the time budget or the max number of
+     * attempts, and summarizes the attempts, instead of chaining their failures.
+     *
+     * @param phase The phase that ran out of time
+     * @param deadline Deadline of the action
+     * @param budget Time budget of the action, in milliseconds
+     * @param timedOut {@code true} if the time budget was over, {@code false} if the
+     *                 max number of attempts was reached
+     * @param attempts Number of attempts
+     * @param failures Number of attempts failed by an exception
+     * @param last The last exception, if any
+     * @return The exception
+     */
+    private SyncFailedException failure(SyncPhase phase, Deadline deadline, long budget,
+                                        boolean timedOut, int attempts, int failures,
+                                        RuntimeException last) {
+        StringBuilder message = new StringBuilder(160).append("Phase ").append(phase);
+        if (timedOut) {
+            message.append(" ran out of time (time budget of ").append(budget).append(" ms)");
+        } else {
+            message.append(" ran out of attempts (max retries of ").append(maxRetries)
+                   .append(')');
+        }
+        message.append(" after ").append(deadline.elapsedMillis())
+                .append(" ms and ").append(attempts).append(" attempts (")
+                .append(attempts - failures).append(" not found, ")
+                .append(failures).append(" failed)");
+        if (last != null) {
+            message.append(", last failure: ").append(last);
+        }
+        return new SyncFailedException(phase, message.toString(), last, attempts);
+    }
+
+    /**
+     * Notifies the listeners that an attempt is starting.
+     *
+     * @param phase Phase of the attempt
+     * @param attempt Number of the attempt
+     */
+    private void onAttempt(SyncPhase phase, int attempt) {
+        for (SyncListener listener : listeners) {
+            try {
+                listener.onAttempt(identity, phase, attempt);
+            } catch (RuntimeException e) {
+                // A listener can not break the action
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners that an attempt failed.
+     *
+     * @param phase Phase of the failed attempt
+     * @param attempt Number of the failed attempt
+     * @param failure The failure of the attempt, or {@code null} if not found
+     */
+    private void onRetry(SyncPhase phase, int attempt, RuntimeException failure) {
+        for (SyncListener listener : listeners) {
+            try {
+                listener.onRetry(identity, phase, attempt, failure);
+            } catch (RuntimeException e) {
+                // A listener can not break the action
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners that a container is going to be reloaded.
+     *
+     * @param container The container
+     * @param attempt Number of the last failed attempt
+     */
+    private void onReload(Reloadable container, int attempt) {
+        for (SyncListener listener : listeners) {
+            try {
+                listener.onReload(identity, container, attempt);
+            } catch (RuntimeException e) {
+                // A listener can not break the action
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners that the action succeeded.
+     *
+     * @param testable The testable object on which the action was done
+     * @param attempts Number of attempts done
+     * @param elapsedNanos Duration of the action, in nanoseconds
+     */
+    private void onResolved(Testable testable, int attempts, long elapsedNanos) {
+        for (SyncListener listener : listeners) {
+            try {
+                listener.onResolved(identity, testable, attempts, elapsedNanos);
+            } catch (RuntimeException e) {
+                // A listener can not break the action
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners that the action could not be completed.
+     *
+     * @param failure The exception that will be thrown
+     */
+    private void onGiveUp(SyncFailedException failure) {
+        for (SyncListener listener : listeners) {
+            try {
+                listener.onGiveUp(identity, failure);
+            } catch (RuntimeException e) {
+                // A listener can not break the action
+            }
+        }
+    }
+
+    /**
+     * Stops the action if it was cancelled.
+     *
+     * @param context The execution context (it can be {@code null})
+     *
+     * @throws CancellationException If the action was cancelled.
+     */
+    private static void checkCancelled(ExecutionContext context) {
+        if ((context != null && context.isCancelled()) || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("The action was cancelled");
+        }
+    }
+
+    /**
+     * Waits before the next attempt. The first pause is the one learned by the adaptive
+     * policy, if any; the following ones are decided by the waiter.
+     *
+     * @param attempts Number of failed attempts so far
+     * @param deadline Deadline of the action
+     * @param previous Previous pause, in milliseconds
+     * @param version Version of the container at the beginning of the last attempt
+     * @return The pause done, in milliseconds, if known
+     */
+    private long pause(int attempts, Deadline deadline, long previous, long version) {
+        if (waiter == null) {
+            return 0L;
+        }
+        if (attempts == 1 && policy != null) {
+            long first = Math.min(policy.firstPollDelay(identity, 0L) - deadline.elapsedMillis(),
+                                  deadline.remainingMillis());
+            if (first > 0) {
+                waiter.pause(first);
+                return first;
+            }
+        }
+        return waiter.pause(attempts, deadline.elapsedMillis(), previous, version,
+                            deadline.remainingMillis());
+    }
+
+    /**
+     * Builder of a {@link Synchronizer}.
+     */
+    public static final class Builder {
+        /**
+         * Waiting policy between two attempts.
+         */
+        private Waiter waiter;
+        /**
+         * Chain of the containers to reload.
+         */
+        private Reloadable[] containers = NO_CONTAINERS;
+        /**
+         * Reloads a container of the chain.
+         */
+        private Consumer<Reloadable> reloader = Reloadable::reload;
+        /**
+         * Default time budget of a single action, in milliseconds.
+         */
+        private long timeout;
+        /**
+         * Max number of attempts inside the time budget.
+         */
+        private final int maxRetries;
+        /**
+         * Number of failed attempts after which a container is reloaded.
+         */
+        private final int reloadRange;
+        /**
+         * Adaptive policy learning the locate latency.
+         */
+        private AdaptiveWaitPolicy policy;
+        /**
+         * Identity of the widget.
+         */
+        private String identity;
+        /**
+         * Metrics of the widget.
+         */
+        private WidgetMetrics metrics;
+        /**
+         * Listeners of the action.
+         */
+        private SyncListener[] listeners = SyncListeners.NONE;
+
+        /**
+         * Ctor.
+         *
+         * @param settings The resolved synchronization settings
+         */
+        private Builder(SyncSettings settings) {
+            this.timeout = settings.getTimeout();
+            this.maxRetries = settings.getMaxRetries();
+            this.reloadRange = settings.getReloadRange();
+        }
+
+        /**
+         * Sets the waiting policy between two attempts. By default, the engine retries
+         * immediately.
+         *
+         * @param waiter The waiter (it can be {@code null})
+         * @return The builder
+         */
+        public Builder waiter(Waiter waiter) {
+            this.waiter = waiter;
+            return this;
+        }
+
+        /**
+         * Sets the default time budget of a single action, instead of the one of the
+         * settings.
+         *
+         * @param timeout Time budget, in milliseconds
+         * @return The builder
+         */
+        public Builder timeout(long timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the container to reload, reloading it through {@link Reloadable#reload()}.
+         * By default, there are no containers.
+         *
+         * @param container The container (it can be {@code null})
+         * @return The builder
+         */
+        public Builder container(Reloadable container) {
+            return containers(container != null ? new Reloadable[] {container} : NO_CONTAINERS,
+                              Reloadable::reload);
+        }
+
+        /**
+         * Sets the chain of containers to reload and how they are reloaded.
+         *
+         * @param containers Chain of the containers to reload, from the innermost to the
+         *                   outermost one. The array is not copied, and must not be
+         *                   modified
+         * @param reloader Reloads a container of the chain
+         * @return The builder
+         */
+        public Builder containers(Reloadable[] containers, Consumer<Reloadable> reloader) {
+            this.containers = containers;
+            this.reloader = reloader;
+            return this;
+        }
+
+        /**
+         * Sets the adaptive policy learning the locate latency of the widget.
+         *
+         * @param policy The policy (it can be {@code null})
+         * @return The builder
+         */
+        public Builder policy(AdaptiveWaitPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Sets the identity of the widget inside the adaptive policy and the listeners.
+         *
+         * @param identity The identity of the widget
+         * @return The builder
+         */
+        public Builder identity(String identity) {
+            this.identity = identity;
+            return this;
+        }
+
+        /**
+         * Sets the metrics of the widget.
+         *
+         * @param metrics The metrics (it can be {@code null})
+         * @return The builder
+         */
+        public Builder metrics(WidgetMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the listeners of the action.
+         *
+         * @param listeners The listeners. The array is not copied, and must not be
+         *                  modified
+         * @return The builder
+         */
+        public Builder listeners(SyncListener[] listeners) {
+            this.listeners = listeners != null ? listeners : SyncListeners.NONE;
+            return this;
+        }
+
+        /**
+         * Builds the engine.
+         *
+         * @return A new engine
+         */
+        public Synchronizer build() {
+            return new Synchronizer(this);
+        }
+    }
+}
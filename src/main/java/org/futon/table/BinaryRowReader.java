@@ -0,0 +1,207 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads rows written by a {@link BinaryRowWriter} from a channel. The lengths read are
+ * checked against the bytes left in the channel, if known, or against a max length
+ * otherwise, so that a corrupted file can not exhaust the memory.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BinaryRowReader implements RowReader {
+    /**
+     * Size of the buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * Max number of bytes of a row, if the size of the channel is not known.
+     */
+    private static final long MAX_ROW_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * The channel.
+     */
+    private final ReadableByteChannel channel;
+    /**
+     * Buffer of the bytes read.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    /**
+     * {@code true} if the end marker was read.
+     */
+    private boolean ended;
+
+    /**
+     * Ctor.
+     *
+     * @param channel The channel
+     * @throws IOException If the channel does not contain rows in binary format
+     */
+    public BinaryRowReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+        if (getInt() != BinaryRowWriter.MAGIC) {
+            throw new IOException("Not a futon binary table");
+        }
+    }
+
+    /**
+     * Opens a reader on a file.
+     *
+     * @param path The file
+     * @return A new reader
+     * @throws IOException If the file can not be opened, or it is not in binary format
+     */
+    public static BinaryRowReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new BinaryRowReader(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public ResultRow read() throws IOException {
+        if (ended) {
+            return null;
+        }
+        int index = getInt();
+        if (index == BinaryRowWriter.END) {
+            ended = true;
+            return null;
+        }
+        if (index < 0) {
+            throw new IOException("Corrupted futon binary table: row index " + index);
+        }
+        // Every cell takes at least the int of its length
+        String[] values = new String[checkLength(getInt(), 4L)];
+        for (int i = 0; i < values.length; i++) {
+            int length = getInt();
+            if (length != -1) {
+                byte[] bytes = new byte[checkLength(length, 1L)];
+                get(bytes);
+                values[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return new ResultRow(index, values);
+    }
+
+    /**
+     * Checks that a length read can be satisfied by the bytes left in the channel.
+     *
+     * @param length The length read
+     * @param unit Min number of bytes taken by every unit of the length
+     * @return The length
+     * @throws IOException If the length is negative or too large
+     */
+    private int checkLength(int length, long unit) throws IOException {
+        if (length < 0 || length * unit > available()) {
+            throw new IOException("Corrupted futon binary table: length " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Returns the number of bytes left to read, if the size of the channel is known,
+     * or the max number of bytes of a row otherwise.
+     *
+     * @return The number of bytes that can be read
+     * @throws IOException If the size of the channel can not be read
+     */
+    private long available() throws IOException {
+        if (channel instanceof SeekableByteChannel) {
+            SeekableByteChannel seekable = (SeekableByteChannel) channel;
+            return seekable.size() - seekable.position() + buffer.remaining();
+        }
+        return MAX_ROW_BYTES;
+    }
+
+    /**
+     * Reads an int.
+     *
+     * @return The int
+     * @throws IOException If the int can not be read
+     */
+    private int getInt() throws IOException {
+        ensure(4);
+        return buffer.getInt();
+    }
+
+    /**
+     * Reads some bytes.
+     *
+     * @param bytes Array to fill with the bytes
+     * @throws IOException If the bytes can not be read
+     */
+    private void get(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                ensure(1);
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.get(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    /**
+     * Ensures that the buffer contains at least {@code count} bytes.
+     *
+     * @param count Number of bytes
+     * @throws IOException If the channel ends before
+     */
+    private void ensure(int count) throws IOException {
+        if (buffer.remaining() >= count) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < count) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Truncated futon binary table");
+            }
+        }
+        buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
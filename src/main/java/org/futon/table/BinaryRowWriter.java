@@ -0,0 +1,173 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Writes rows in a compact length-prefixed binary format to a channel. The format
+ *    is made of:
+ * </p>
+ * <ul>
+ *     <li>the magic number {@link #MAGIC};</li>
+ *     <li>for every row, its index, its number of cells and, for every cell, the
+ *         length in bytes of its value encoded in UTF-8 followed by the bytes. A
+ *         {@code null} cell has length -1;</li>
+ *     <li>the end marker -1.</li>
+ * </ul>
+ * <p>All the ints are big-endian. Rows are buffered and written to the channel in
+ *    blocks.
+ * </p>
+ *
+ * @see BinaryRowReader
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BinaryRowWriter implements RowWriter {
+    /**
+     * Magic number of the format.
+     */
+    public static final int MAGIC = 0x46544e31;
+    /**
+     * End marker of the rows.
+     */
+    static final int END = -1;
+    /**
+     * Size of the buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The channel.
+     */
+    private final WritableByteChannel channel;
+    /**
+     * Buffer of the bytes to write.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Ctor.
+     *
+     * @param channel The channel
+     * @throws IOException If the magic number can not be written
+     */
+    public BinaryRowWriter(WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        putInt(MAGIC);
+    }
+
+    /**
+     * Opens a writer on a file, replacing its content.
+     *
+     * @param path The file
+     * @return A new writer
+     * @throws IOException If the file can not be opened
+     */
+    public static BinaryRowWriter open(Path path) throws IOException {
+        return new BinaryRowWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public void write(int index, String[] values) throws IOException {
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid row index: " + index);
+        }
+        putInt(index);
+        putInt(values.length);
+        for (String value : values) {
+            if (value == null) {
+                putInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                putInt(bytes.length);
+                put(bytes);
+            }
+        }
+    }
+
+    /**
+     * Puts an int in the buffer, flushing it if needed.
+     *
+     * @param value The int
+     * @throws IOException If the buffer can not be flushed
+     */
+    private void putInt(int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+        buffer.putInt(value);
+    }
+
+    /**
+     * Puts some bytes in the buffer, flushing it when full.
+     *
+     * @param bytes The bytes
+     * @throws IOException If the buffer can not be flushed
+     */
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes the content of the buffer to the channel.
+     *
+     * @throws IOException If the content can not be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            putInt(END);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
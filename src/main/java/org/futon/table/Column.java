@@ -0,0 +1,175 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A column of a {@link TableSnapshot}, dictionary-encoded. Every distinct value
+ *    of the column is stored once in the dictionary, and every cell is an int code
+ *    referring to it. Report tables usually have few distinct values per column, so
+ *    the encoding saves a lot of memory and makes comparisons between cells cheap.
+ * </p>
+ * <p>A column is immutable.</p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Column {
+    /**
+     * Distinct values of the column.
+     */
+    private final String[] dictionary;
+    /**
+     * Codes of the cells, referring to the dictionary.
+     */
+    private final int[] codes;
+
+    /**
+     * Ctor.
+     *
+     * @param dictionary Distinct values of the column
+     * @param codes Codes of the cells
+     */
+    private Column(String[] dictionary, int[] codes) {
+        this.dictionary = dictionary;
+        this.codes = codes;
+    }
+
+    /**
+     * Returns the number of cells of the column.
+     *
+     * @return The number of cells
+     */
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Returns the value of the cell at {@code index}.
+     *
+     * @param index Index of the cell, starting from the first row of the snapshot
+     * @return The value of the cell
+     */
+    public String get(int index) {
+        return dictionary[codes[index]];
+    }
+
+    /**
+     * Returns the dictionary code of the cell at {@code index}. Two cells of the same
+     * column have the same value if and only if they have the same code.
+     *
+     * @param index Index of the cell, starting from the first row of the snapshot
+     * @return The code of the cell
+     */
+    public int code(int index) {
+        return codes[index];
+    }
+
+    /**
+     * Returns the number of distinct values of the column.
+     *
+     * @return The size of the dictionary
+     */
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * Returns the value associated to a dictionary {@code code}.
+     *
+     * @param code A dictionary code
+     * @return The value associated to the code
+     */
+    public String valueOf(int code) {
+        return dictionary[code];
+    }
+
+    /**
+     * Incremental builder of a column.
+     */
+    static final class Builder {
+        /**
+         * Codes of the distinct values added so far.
+         */
+        private final Map<String, Integer> encoding = new HashMap<String, Integer>();
+        /**
+         * Distinct values added so far.
+         */
+        private final List<String> dictionary = new ArrayList<String>();
+        /**
+         * Codes of the cells added so far.
+         */
+        private int[] codes = new int[16];
+        /**
+         * Number of cells added so far.
+         */
+        private int size;
+
+        /**
+         * Adds a cell to the column.
+         *
+         * @param value Value of the cell
+         */
+        void add(String value) {
+            Integer code = encoding.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                encoding.put(value, code);
+                dictionary.add(value);
+            }
+            if (size == codes.length) {
+                codes = resize(codes, size * 2);
+            }
+            codes[size++] = code;
+        }
+
+        /**
+         * Builds the column.
+         *
+         * @return A new immutable column
+         */
+        Column build() {
+            return new Column(dictionary.toArray(new String[dictionary.size()]),
+                              resize(codes, size));
+        }
+
+        /**
+         * Copies {@code array} into a new array of length {@code length}.
+         *
+         * @param array The array to copy
+         * @param length Length of the new array
+         * @return The new array
+         */
+        private static int[] resize(int[] array, int length) {
+            int[] resized = new int[length];
+            System.arraycopy(array, 0, resized, 0, Math.min(array.length, length));
+            return resized;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads rows written by a {@link CsvRowWriter}, in CSV format (RFC 4180) encoded in
+ * UTF-8, from a channel. The first field of every line is the index of the row. Empty
+ * unquoted cells are read as {@code null}, empty quoted ones as empty strings.
+ *
+ * @see CsvRowWriter
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CsvRowReader implements RowReader {
+    /**
+     * Size of the buffer, in chars.
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    /**
+     * Reader decoding the channel.
+     */
+    private final Reader reader;
+    /**
+     * Buffer of the chars read.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+    /**
+     * Position of the next char to read in the buffer.
+     */
+    private int position;
+    /**
+     * Number of chars in the buffer.
+     */
+    private int limit;
+    /**
+     * Number of the line being read, starting from one.
+     */
+    private int line;
+
+    /**
+     * Ctor.
+     *
+     * @param channel The channel
+     */
+    public CsvRowReader(ReadableByteChannel channel) {
+        this.reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1);
+    }
+
+    /**
+     * Opens a reader on a file.
+     *
+     * @param path The file
+     * @return A new reader
+     * @throws IOException If the file can not be opened
+     */
+    public static CsvRowReader open(Path path) throws IOException {
+        return new CsvRowReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    @Override
+    public ResultRow read() throws IOException {
+        int c = next();
+        if (c < 0) {
+            return null;
+        }
+        line++;
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted cell at line " + line);
+                }
+                if (c == '"') {
+                    int following = next();
+                    if (following == '"') {
+                        cell.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    cell.append((char) c);
+                }
+            } else if (c == '"' && cell.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                cells.add(cell(cell, wasQuoted));
+                cell.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r') {
+                    int following = next();
+                    if (following != '\n' && following >= 0) {
+                        position--;
+                    }
+                }
+                cells.add(cell(cell, wasQuoted));
+                return row(cells);
+            } else {
+                cell.append((char) c);
+            }
+            c = next();
+        }
+    }
+
+    /**
+     * Returns the value of a cell.
+     *
+     * @param cell The chars of the cell
+     * @param quoted {@code true} if the cell was quoted
+     * @return The value of the cell, or {@code null} if it is empty and not quoted
+     */
+    private static String cell(StringBuilder cell, boolean quoted) {
+        return quoted || cell.length() > 0 ? cell.toString() : null;
+    }
+
+    /**
+     * Builds a row from the fields of a line, the first of which is its index.
+     *
+     * @param fields The fields of the line
+     * @return The row
+     * @throws IOException If the line does not start with a valid index
+     */
+    private ResultRow row(List<String> fields) throws IOException {
+        String index = fields.get(0);
+        try {
+            int value = index != null ? Integer.parseInt(index) : -1;
+            if (value >= 0) {
+                return new ResultRow(value, fields.subList(1, fields.size())
+                                                  .toArray(new String[fields.size() - 1]));
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IOException("Invalid row index '" + index + "' at line " + line);
+    }
+
+    /**
+     * Returns the next char of the channel.
+     *
+     * @return The next char, or -1 at the end of the channel
+     * @throws IOException If the channel can not be read
+     */
+    private int next() throws IOException {
+        if (position == limit) {
+            // Keeps the last char, so that one char can always be pushed back
+            if (limit > 0) {
+                buffer[0] = buffer[limit - 1];
+                position = 1;
+            }
+            int read = reader.read(buffer, position, buffer.length - position);
+            if (read <= 0) {
+                limit = position;
+                return -1;
+            }
+            limit = position + read;
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Writes rows in CSV format (RFC 4180), encoded in UTF-8, to a channel. The first
+ *    field of every line is the index of the row, followed by its cells. Cells
+ *    containing commas, quotes or line breaks are quoted. Empty cells are always
+ *    quoted, so that {@code null} cells, written as empty unquoted fields, can be
+ *    told apart from them.
+ * </p>
+ * <p>Rows are buffered and written to the channel in blocks.</p>
+ *
+ * @see CsvRowReader
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CsvRowWriter implements RowWriter {
+    /**
+     * Size of the buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The channel.
+     */
+    private final WritableByteChannel channel;
+    /**
+     * Buffer of the bytes to write.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    /**
+     * Line being written.
+     */
+    private final StringBuilder line = new StringBuilder();
+
+    /**
+     * Ctor.
+     *
+     * @param channel The channel
+     */
+    public CsvRowWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a writer on a file, replacing its content.
+     *
+     * @param path The file
+     * @return A new writer
+     * @throws IOException If the file can not be opened
+     */
+    public static CsvRowWriter open(Path path) throws IOException {
+        return new CsvRowWriter(FileChannel.open(path, StandardOpenOption.CREATE,
+                                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                                 StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public void write(int index, String[] values) throws IOException {
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid row index: " + index);
+        }
+        line.setLength(0);
+        line.append(index);
+        for (String value : values) {
+            line.append(',');
+            appendCell(value);
+        }
+        line.append("\r\n");
+        put(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends a cell to the line, quoting it if needed.
+     *
+     * @param value Value of the cell
+     */
+    private void appendCell(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * Puts some bytes in the buffer, flushing it when full.
+     *
+     * @param bytes The bytes
+     * @throws IOException If the buffer can not be flushed
+     */
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes the content of the buffer to the channel.
+     *
+     * @throws IOException If the content can not be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+/**
+ * A row resulting from a {@link TableQuery}. The row keeps the index it has in the
+ * table, so the caller can go back and act on the live widget.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ResultRow {
+    /**
+     * Index of the row in the table.
+     */
+    private final int index;
+    /**
+     * Values of the projected cells.
+     */
+    private final String[] values;
+
+    /**
+     * Ctor.
+     *
+     * @param index Index of the row in the table
+     * @param values Values of the projected cells
+     */
+    ResultRow(int index, String[] values) {
+        this.index = index;
+        this.values = values;
+    }
+
+    /**
+     * Returns the index of the row in the table.
+     *
+     * @return The index of the row
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the value of the {@code i}-th projected cell.
+     *
+     * @param i Position of the cell in the projection
+     * @return The value of the cell
+     */
+    public String getValue(int i) {
+        return values[i];
+    }
+
+    /**
+     * Returns the number of projected cells.
+     *
+     * @return The number of cells
+     */
+    public int size() {
+        return values.length;
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+/**
+ * A row read by a {@link RowCursor}. The row is a view on the chunk of rows fetched
+ * by the cursor, so it does not copy the values of its cells.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Row {
+    /**
+     * Ordinal of the row across all the pages of the table.
+     */
+    private final int index;
+    /**
+     * Index of the row inside the current page of the table.
+     */
+    private final int pageRow;
+    /**
+     * Chunk containing the row.
+     */
+    private final TableSnapshot chunk;
+
+    /**
+     * Ctor.
+     *
+     * @param index Ordinal of the row across all the pages of the table
+     * @param pageRow Index of the row inside the current page of the table
+     * @param chunk Chunk containing the row
+     */
+    Row(int index, int pageRow, TableSnapshot chunk) {
+        this.index = index;
+        this.pageRow = pageRow;
+        this.chunk = chunk;
+    }
+
+    /**
+     * Returns the ordinal of the row across all the pages of the table.
+     *
+     * @return The ordinal of the row
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the index of the row inside the current page of the table. It is the
+     * index to use to act on the row through the table widget.
+     *
+     * @return The index of the row inside the current page
+     */
+    public int getPageRow() {
+        return pageRow;
+    }
+
+    /**
+     * Returns the number of cells of the row.
+     *
+     * @return The number of cells
+     */
+    public int getColumnCount() {
+        return chunk.getColumnCount();
+    }
+
+    /**
+     * Returns the value of the cell in column {@code col}.
+     *
+     * @param col Column of the table
+     * @return The value of the cell
+     */
+    public String getValue(int col) {
+        return chunk.getCellValue(pageRow, col);
+    }
+
+    /**
+     * Returns a copy of the values of the cells of the row.
+     *
+     * @return The values of the cells
+     */
+    public String[] getValues() {
+        String[] values = new String[chunk.getColumnCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = chunk.getCellValue(pageRow, chunk.getFirstColumn() + i);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,215 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * <p>A lazy cursor on the rows of a table. Rows are fetched in chunks of
+ *    {@code pageSize} rows, and only the current chunk is kept in memory, so also
+ *    tables with a huge number of rows can be visited.
+ * </p>
+ * <p>When the rows of the current page are over, the cursor asks the table to move to
+ *    the next page, according to its {@link Paging}. The visit can be terminated
+ *    at any time: no more rows are fetched after the last call to {@link #next()}.
+ * </p>
+ *
+ * @see org.futon.widgets.Table#rows(int)
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RowCursor implements Iterator<Row> {
+    /**
+     * Number of rows of the current page.
+     */
+    private final IntSupplier pageRows;
+    /**
+     * Source of the rows.
+     */
+    private final Source source;
+    /**
+     * Moves to the next page, returning {@code false} if there are no more pages.
+     */
+    private final BooleanSupplier nextPage;
+    /**
+     * Number of rows fetched at once.
+     */
+    private final int pageSize;
+    /**
+     * Paging of the table.
+     */
+    private final Paging paging;
+    /**
+     * Current chunk of rows.
+     */
+    private TableSnapshot chunk;
+    /**
+     * Number of rows of the current page, or -1 if unknown.
+     */
+    private int rowCount = -1;
+    /**
+     * Index of the next row inside the current page.
+     */
+    private int position;
+    /**
+     * Ordinal of the first row of the current page.
+     */
+    private int pageOffset;
+    /**
+     * Next row to return, if already fetched.
+     */
+    private Row next;
+    /**
+     * {@code true} if there are no more rows.
+     */
+    private boolean exhausted;
+
+    /**
+     * Ctor.
+     *
+     * @param pageRows Number of rows of the current page
+     * @param source Source of the rows
+     * @param nextPage Moves to the next page, returning {@code false} if there are no
+     *                 more pages
+     * @param pageSize Number of rows fetched at once
+     * @param paging Paging of the table
+     */
+    public RowCursor(IntSupplier pageRows, Source source, BooleanSupplier nextPage,
+                     int pageSize, Paging paging) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        }
+        this.pageRows = pageRows;
+        this.source = source;
+        this.nextPage = nextPage;
+        this.pageSize = pageSize;
+        this.paging = paging;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && !exhausted) {
+            if (chunk != null && chunk.contains(position, chunk.getFirstColumn())) {
+                next = new Row(pageOffset + position, position, chunk);
+                position++;
+            } else if (rowCount < 0) {
+                rowCount = pageRows.getAsInt();
+            } else if (position < rowCount) {
+                chunk = source.fetch(position, Math.min(pageSize, rowCount - position));
+                if (chunk.getRowCount() == 0 || chunk.getColumnCount() == 0) {
+                    // The table shrank in the meanwhile
+                    rowCount = position;
+                }
+            } else {
+                nextPage();
+            }
+        }
+        return next != null;
+    }
+
+    /**
+     * Moves to the next page of the table, if any.
+     */
+    private void nextPage() {
+        chunk = null;
+        if (paging == Paging.NONE || !nextPage.getAsBoolean()) {
+            exhausted = true;
+            return;
+        }
+        int count = pageRows.getAsInt();
+        if (paging == Paging.PAGINATED) {
+            pageOffset += position;
+            position = 0;
+        }
+        exhausted = count <= position;
+        rowCount = count;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Rows can not be removed from a table.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Rows can not be removed");
+    }
+
+    /**
+     * Returns the first of the remaining rows that satisfies the {@code predicate}.
+     * The cursor stops fetching rows as soon as the row is found.
+     *
+     * @param predicate A condition on rows
+     * @return The first row satisfying the predicate, or {@code null}
+     */
+    public Row find(Predicate<? super Row> predicate) {
+        while (hasNext()) {
+            Row row = next();
+            if (predicate.test(row)) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Terminates the visit, releasing the current chunk of rows.
+     */
+    public void close() {
+        chunk = null;
+        next = null;
+        exhausted = true;
+    }
+
+    /**
+     * The rows of a table visited by a cursor.
+     */
+    @FunctionalInterface
+    public interface Source {
+        /**
+         * Fetches a chunk of rows of the current page, with all their columns.
+         *
+         * @param fromRow First row of the chunk
+         * @param rowCount Number of rows of the chunk
+         * @return The chunk of rows
+         */
+        public TableSnapshot fetch(int fromRow, int rowCount);
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * <p>Matching between the rows of a table before and after a reload, computed on
+ *    the fingerprints of the rows. Rows are first matched by position, then by
+ *    fingerprint, so also rows moved by an insertion or a deletion are recognized.
+ * </p>
+ * <p>A current row not matching any previous row is <em>modified</em> if the previous
+ *    row at the same position was not matched either, <em>added</em> otherwise.
+ *    Previous rows not matched and not modified are <em>removed</em>.
+ * </p>
+ *
+ * @see TableChanges
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RowMatching {
+    /**
+     * For every current row, the matching previous row, or -1.
+     */
+    private final int[] sources;
+    /**
+     * Current rows that were added.
+     */
+    private final int[] added;
+    /**
+     * Previous rows that were removed.
+     */
+    private final int[] removed;
+    /**
+     * Current rows that were modified.
+     */
+    private final int[] modified;
+
+    /**
+     * Ctor.
+     *
+     * @param sources For every current row, the matching previous row, or -1
+     * @param added Current rows that were added
+     * @param removed Previous rows that were removed
+     * @param modified Current rows that were modified
+     */
+    private RowMatching(int[] sources, int[] added, int[] removed, int[] modified) {
+        this.sources = sources;
+        this.added = added;
+        this.removed = removed;
+        this.modified = modified;
+    }
+
+    /**
+     * Matches the rows of a table using their fingerprints.
+     *
+     * @param previous Fingerprints of the rows before the reload
+     * @param current Fingerprints of the rows after the reload
+     * @return The matching of the rows
+     */
+    public static RowMatching of(long[] previous, long[] current) {
+        int[] sources = new int[current.length];
+        boolean[] used = new boolean[previous.length];
+        // Rows that did not move
+        boolean unmatched = false;
+        for (int i = 0; i < current.length; i++) {
+            if (i < previous.length && previous[i] == current[i]) {
+                sources[i] = i;
+                used[i] = true;
+            } else {
+                sources[i] = -1;
+                unmatched = true;
+            }
+        }
+        // Rows that moved
+        if (unmatched) {
+            Map<Long, LinkedList<Integer>> free = new HashMap<Long, LinkedList<Integer>>();
+            for (int i = 0; i < previous.length; i++) {
+                if (!used[i]) {
+                    LinkedList<Integer> rows = free.get(previous[i]);
+                    if (rows == null) {
+                        rows = new LinkedList<Integer>();
+                        free.put(previous[i], rows);
+                    }
+                    rows.add(i);
+                }
+            }
+            for (int i = 0; i < current.length; i++) {
+                if (sources[i] < 0) {
+                    LinkedList<Integer> rows = free.get(current[i]);
+                    if (rows != null && !rows.isEmpty()) {
+                        sources[i] = rows.removeFirst();
+                        used[sources[i]] = true;
+                    }
+                }
+            }
+        }
+        // Classification of the rows left
+        int[] added = new int[current.length];
+        int[] modified = new int[current.length];
+        int addedCount = 0;
+        int modifiedCount = 0;
+        for (int i = 0; i < current.length; i++) {
+            if (sources[i] < 0) {
+                if (i < previous.length && !used[i]) {
+                    used[i] = true;
+                    modified[modifiedCount++] = i;
+                } else {
+                    added[addedCount++] = i;
+                }
+            }
+        }
+        int[] removed = new int[previous.length];
+        int removedCount = 0;
+        for (int i = 0; i < previous.length; i++) {
+            if (!used[i]) {
+                removed[removedCount++] = i;
+            }
+        }
+        return new RowMatching(sources, truncate(added, addedCount),
+                               truncate(removed, removedCount), truncate(modified, modifiedCount));
+    }
+
+    /**
+     * Returns the previous row matching the current row {@code row}.
+     *
+     * @param row A current row
+     * @return The previous row, or -1 if the row has to be read again
+     */
+    public int getSource(int row) {
+        return sources[row];
+    }
+
+    /**
+     * Returns the current rows that were added.
+     *
+     * @return The added rows, in ascending order
+     */
+    public int[] getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the previous rows that were removed.
+     *
+     * @return The removed rows, in ascending order
+     */
+    public int[] getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the current rows that were modified.
+     *
+     * @return The modified rows, in ascending order
+     */
+    public int[] getModified() {
+        return modified;
+    }
+
+    /**
+     * Returns the first {@code length} elements of {@code array}.
+     *
+     * @param array An array
+     * @param length Number of elements to keep
+     * @return The truncated array
+     */
+    private static int[] truncate(int[] array, int length) {
+        int[] truncated = new int[length];
+        System.arraycopy(array, 0, truncated, 0, length);
+        return truncated;
+    }
+}
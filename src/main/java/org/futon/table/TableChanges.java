@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+/**
+ * The changes of the content of a table after a reload, together with the new
+ * snapshot of the table. Previous rows are identified by their index in the
+ * previous snapshot, current rows by their index in the new one.
+ *
+ * @see org.futon.widgets.Table#refresh()
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TableChanges {
+    /**
+     * Current rows that were added.
+     */
+    private final int[] added;
+    /**
+     * Previous rows that were removed.
+     */
+    private final int[] removed;
+    /**
+     * Current rows that were modified.
+     */
+    private final int[] modified;
+    /**
+     * Snapshot of the table after the changes.
+     */
+    private final TableSnapshot snapshot;
+
+    /**
+     * Ctor.
+     *
+     * @param added Current rows that were added
+     * @param removed Previous rows that were removed
+     * @param modified Current rows that were modified
+     * @param snapshot Snapshot of the table after the changes
+     */
+    public TableChanges(int[] added, int[] removed, int[] modified, TableSnapshot snapshot) {
+        this.added = added;
+        this.removed = removed;
+        this.modified = modified;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns the current rows that were added.
+     *
+     * @return The added rows, in ascending order
+     */
+    public int[] getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the previous rows that were removed.
+     *
+     * @return The removed rows, in ascending order
+     */
+    public int[] getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the current rows that were modified.
+     *
+     * @return The modified rows, in ascending order
+     */
+    public int[] getModified() {
+        return modified;
+    }
+
+    /**
+     * Returns the snapshot of the table after the changes.
+     *
+     * @return The new snapshot
+     */
+    public TableSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns {@code true} if the content of the table did not change.
+     *
+     * @return {@code true} if there are no changes
+     */
+    public boolean isEmpty() {
+        return added.length == 0 && removed.length == 0 && modified.length == 0;
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * <p>Compares two exports of a table. Rows are matched by fingerprint, as a
+ *    {@link RowMatching} does, so a row inserted or deleted does not mark the following
+ *    ones as modified.
+ * </p>
+ * <p>Every export is read twice: first to compute the fingerprints of its rows, then
+ *    to notify the differences. Only the fingerprints are kept in memory, so exports of
+ *    any size can be compared.
+ * </p>
+ * <pre>
+ *     TableDiff.diff(() -&gt; CsvRowReader.open(before),
+ *                    () -&gt; CsvRowReader.open(after),
+ *                    listener);
+ * </pre>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TableDiff {
+    /**
+     * Initial number of fingerprints of an export.
+     */
+    private static final int INITIAL_ROWS = 1024;
+
+    /**
+     * Ctor.
+     */
+    private TableDiff() {
+        // Empty body
+    }
+
+    /**
+     * Compares two exports of a table. Removed rows are notified in the order of the
+     * first export; added and modified rows in the order of the second one.
+     *
+     * @param before The first export
+     * @param after The second export
+     * @param listener Listener notified of every difference
+     * @return The number of differences
+     * @throws IOException If the exports can not be read, or they changed while they
+     *         were compared
+     */
+    public static long diff(Export before, Export after, Listener listener)
+            throws IOException {
+        long[] previous = fingerprints(before);
+        long[] current = fingerprints(after);
+        RowMatching matching = RowMatching.of(previous, current);
+        BitSet removed = bits(matching.getRemoved());
+        BitSet modified = bits(matching.getModified());
+        try (RowReader left = before.open(); RowReader right = after.open()) {
+            int read = 0;
+            ResultRow l = null;
+            for (int i = 0; i < current.length; i++) {
+                ResultRow r = next(right);
+                if (matching.getSource(i) >= 0) {
+                    continue;
+                }
+                if (!modified.get(i)) {
+                    listener.added(r);
+                    continue;
+                }
+                // A modified row is at the same position in both exports
+                while (read <= i) {
+                    l = next(left);
+                    if (removed.get(read++)) {
+                        listener.removed(l);
+                    }
+                }
+                listener.modified(l, r);
+            }
+            while (read < previous.length) {
+                l = next(left);
+                if (removed.get(read++)) {
+                    listener.removed(l);
+                }
+            }
+        }
+        return (long) matching.getAdded().length + matching.getRemoved().length
+               + matching.getModified().length;
+    }
+
+    /**
+     * Reads the fingerprints of the rows of an export.
+     *
+     * @param export The export
+     * @return The fingerprints of the rows, in order
+     * @throws IOException If the export can not be read
+     *
+     * @see TableSnapshot#fingerprint(String[])
+     */
+    private static long[] fingerprints(Export export) throws IOException {
+        long[] fingerprints = new long[INITIAL_ROWS];
+        int count = 0;
+        try (RowReader reader = export.open()) {
+            ResultRow row;
+            while ((row = reader.read()) != null) {
+                if (count == fingerprints.length) {
+                    fingerprints = Arrays.copyOf(fingerprints, count * 2);
+                }
+                fingerprints[count++] = TableSnapshot.fingerprint(values(row));
+            }
+        }
+        return Arrays.copyOf(fingerprints, count);
+    }
+
+    /**
+     * Reads the next row of an export, that must be there.
+     *
+     * @param reader Reader of the export
+     * @return The next row
+     * @throws IOException If the export has less rows than when it was fingerprinted
+     */
+    private static ResultRow next(RowReader reader) throws IOException {
+        ResultRow row = reader.read();
+        if (row == null) {
+            throw new IOException("The export changed while it was compared");
+        }
+        return row;
+    }
+
+    /**
+     * Returns the set of some rows.
+     *
+     * @param rows The rows
+     * @return The set of the rows
+     */
+    private static BitSet bits(int[] rows) {
+        BitSet bits = new BitSet();
+        for (int row : rows) {
+            bits.set(row);
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the values of the cells of a row.
+     *
+     * @param row A row
+     * @return The values of the cells
+     */
+    private static String[] values(ResultRow row) {
+        String[] values = new String[row.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.getValue(i);
+        }
+        return values;
+    }
+
+    /**
+     * An export of a table, that can be read more than once.
+     */
+    public interface Export {
+        /**
+         * Opens a new reader of the export, from its first row.
+         *
+         * @return A new reader
+         * @throws IOException If the export can not be opened
+         */
+        public RowReader open() throws IOException;
+    }
+
+    /**
+     * Listener of the differences between two exports.
+     */
+    public interface Listener {
+        /**
+         * A row is only in the second export.
+         *
+         * @param row The row of the second export
+         */
+        public void added(ResultRow row);
+
+        /**
+         * A row is only in the first export.
+         *
+         * @param row The row of the first export
+         */
+        public void removed(ResultRow row);
+
+        /**
+         * A row has different values in the two exports.
+         *
+         * @param before The row of the first export
+         * @param after The row of the second export
+         */
+        public void modified(ResultRow before, ResultRow after);
+    }
+}
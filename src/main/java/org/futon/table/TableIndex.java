@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>A hash index on a column of a {@link TableSnapshot}, mapping every value of the
+ *    column to the rows containing it. Lookups cost O(1).
+ * </p>
+ * <p>The index reuses the dictionary encoding of the column: rows are grouped by
+ *    dictionary code in a single array, so the index needs only two int arrays
+ *    besides the map of the distinct values.
+ * </p>
+ *
+ * @see org.futon.widgets.Table#index(int)
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TableIndex {
+    /**
+     * Rows not containing the looked up value.
+     */
+    private static final int[] NO_ROWS = new int[0];
+
+    /**
+     * Column of the table that is indexed.
+     */
+    private final int column;
+    /**
+     * Dictionary codes of the distinct values of the column.
+     */
+    private final Map<String, Integer> codes;
+    /**
+     * Offsets inside {@link #rows} of the rows of every code.
+     */
+    private final int[] offsets;
+    /**
+     * Rows of the table, grouped by code.
+     */
+    private final int[] rows;
+
+    /**
+     * Ctor.
+     *
+     * @param column Column of the table that is indexed
+     * @param codes Dictionary codes of the distinct values of the column
+     * @param offsets Offsets of the rows of every code
+     * @param rows Rows of the table, grouped by code
+     */
+    private TableIndex(int column, Map<String, Integer> codes, int[] offsets, int[] rows) {
+        this.column = column;
+        this.codes = codes;
+        this.offsets = offsets;
+        this.rows = rows;
+    }
+
+    /**
+     * Builds the index of a column of a snapshot.
+     *
+     * @param snapshot The snapshot
+     * @param col Column of the table to index
+     * @return A new index
+     *
+     * @throws IndexOutOfBoundsException If the snapshot has rows but not the column.
+     */
+    public static TableIndex build(TableSnapshot snapshot, int col) {
+        if (snapshot.getRowCount() == 0) {
+            return new TableIndex(col, new HashMap<String, Integer>(), new int[1], NO_ROWS);
+        }
+        Column values = snapshot.getColumn(col);
+        int distinct = values.getDictionarySize();
+        Map<String, Integer> codes = new HashMap<String, Integer>(distinct * 4 / 3 + 1);
+        for (int code = 0; code < distinct; code++) {
+            codes.put(values.valueOf(code), code);
+        }
+        // Counting sort of the rows by code
+        int[] offsets = new int[distinct + 1];
+        for (int i = 0; i < values.size(); i++) {
+            offsets[values.code(i) + 1]++;
+        }
+        for (int code = 0; code < distinct; code++) {
+            offsets[code + 1] += offsets[code];
+        }
+        int[] next = new int[distinct];
+        System.arraycopy(offsets, 0, next, 0, distinct);
+        int[] rows = new int[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            rows[next[values.code(i)]++] = snapshot.getFirstRow() + i;
+        }
+        return new TableIndex(col, codes, offsets, rows);
+    }
+
+    /**
+     * Returns the column of the table that is indexed.
+     *
+     * @return The indexed column
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Returns the first row whose cell in the indexed column has the given value.
+     *
+     * @param value The value to look up
+     * @return The row of the table, or {@code -1} if no row contains the value
+     */
+    public int findRow(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : rows[offsets[code]];
+    }
+
+    /**
+     * Returns all the rows whose cell in the indexed column has the given value.
+     *
+     * @param value The value to look up
+     * @return The rows of the table, in ascending order
+     */
+    public int[] findRows(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            return NO_ROWS;
+        }
+        int[] found = new int[offsets[code + 1] - offsets[code]];
+        System.arraycopy(rows, offsets[code], found, 0, found.length);
+        return found;
+    }
+}
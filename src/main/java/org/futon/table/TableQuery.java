@@ -0,0 +1,438 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * <p>A query on a {@link TableSnapshot}: rows can be filtered by the value of their
+ *    cells, sorted, projected on some columns, grouped and aggregated.
+ * </p>
+ * <p>Queries are immutable: every method defining the query returns a new one. The
+ *    evaluation takes advantage of the dictionary encoding of the columns: predicates
+ *    and comparators are applied once per distinct value, and rows are then filtered
+ *    and sorted on int codes. Snapshots with many rows are evaluated in parallel,
+ *    using the common fork-join pool.
+ * </p>
+ * <p>Resulting rows keep the index they have in the table.</p>
+ *
+ * @see org.futon.widgets.Table#query()
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TableQuery {
+    /**
+     * Min number of rows evaluated in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * The snapshot to query.
+     */
+    private final TableSnapshot snapshot;
+    /**
+     * Filters on the rows.
+     */
+    private final List<Filter> filters;
+    /**
+     * Sort keys, from the most significant.
+     */
+    private final List<SortKey> sortKeys;
+    /**
+     * Projected columns, or {@code null} for all the columns.
+     */
+    private final int[] projection;
+
+    /**
+     * Ctor.
+     *
+     * @param snapshot The snapshot to query
+     * @param filters Filters on the rows
+     * @param sortKeys Sort keys, from the most significant
+     * @param projection Projected columns, or {@code null} for all the columns
+     */
+    private TableQuery(TableSnapshot snapshot, List<Filter> filters, List<SortKey> sortKeys,
+                       int[] projection) {
+        this.snapshot = snapshot;
+        this.filters = filters;
+        this.sortKeys = sortKeys;
+        this.projection = projection;
+    }
+
+    /**
+     * Creates a query returning all the rows of a snapshot.
+     *
+     * @param snapshot The snapshot to query
+     * @return A new query
+     */
+    public static TableQuery from(TableSnapshot snapshot) {
+        return new TableQuery(snapshot, Collections.<Filter>emptyList(),
+                              Collections.<SortKey>emptyList(), null);
+    }
+
+    /**
+     * Keeps only the rows whose cell in column {@code col} satisfies the
+     * {@code predicate}.
+     *
+     * @param col Column of the table
+     * @param predicate Condition on the value of the cell
+     * @return A new query
+     */
+    public TableQuery where(int col, Predicate<String> predicate) {
+        List<Filter> added = new ArrayList<>(filters);
+        added.add(new Filter(snapshot.getColumn(col), predicate));
+        return new TableQuery(snapshot, added, sortKeys, projection);
+    }
+
+    /**
+     * Sorts the rows by the value of their cell in column {@code col}, in natural
+     * order. {@code null} values come first.
+     *
+     * @param col Column of the table
+     * @return A new query
+     */
+    public TableQuery orderBy(int col) {
+        return orderBy(col, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+    }
+
+    /**
+     * Sorts the rows by the value of their cell in column {@code col}. Sorting is
+     * stable, and later calls define less significant sort keys.
+     *
+     * @param col Column of the table
+     * @param comparator Order of the values of the cells
+     * @return A new query
+     */
+    public TableQuery orderBy(int col, Comparator<String> comparator) {
+        List<SortKey> added = new ArrayList<>(sortKeys);
+        added.add(new SortKey(snapshot.getColumn(col), comparator));
+        return new TableQuery(snapshot, filters, added, projection);
+    }
+
+    /**
+     * Projects the resulting rows on some columns.
+     *
+     * @param cols Columns of the table
+     * @return A new query
+     */
+    public TableQuery select(int... cols) {
+        for (int col : cols) {
+            snapshot.getColumn(col);
+        }
+        return new TableQuery(snapshot, filters, sortKeys, cols.clone());
+    }
+
+    /**
+     * Returns the indexes in the table of the resulting rows.
+     *
+     * @return The indexes of the rows, in the order defined by the query
+     */
+    public int[] indexes() {
+        int[] rows = evaluate();
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] += snapshot.getFirstRow();
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the resulting rows, projected on the selected columns.
+     *
+     * @return The rows, in the order defined by the query
+     */
+    public List<ResultRow> rows() {
+        int[] cols = projection;
+        if (cols == null) {
+            cols = new int[snapshot.getColumnCount()];
+            for (int i = 0; i < cols.length; i++) {
+                cols[i] = snapshot.getFirstColumn() + i;
+            }
+        }
+        Column[] columns = new Column[cols.length];
+        for (int i = 0; i < cols.length; i++) {
+            columns[i] = snapshot.getColumn(cols[i]);
+        }
+        int[] rows = evaluate();
+        List<ResultRow> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            String[] values = new String[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                values[i] = columns[i].get(row);
+            }
+            result.add(new ResultRow(snapshot.getFirstRow() + row, values));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of resulting rows.
+     *
+     * @return The number of rows
+     */
+    public int count() {
+        return (int) stream().count();
+    }
+
+    /**
+     * Returns the distinct values of column {@code col} in the resulting rows, in order
+     * of first appearance.
+     *
+     * @param col Column of the table
+     * @return The distinct values
+     */
+    public List<String> distinct(int col) {
+        Column column = snapshot.getColumn(col);
+        int[] codes = firstAppearances(column, evaluate());
+        List<String> values = new ArrayList<>(codes.length);
+        for (int code : codes) {
+            values.add(column.valueOf(code));
+        }
+        return values;
+    }
+
+    /**
+     * Groups the resulting rows by the value of column {@code col}, and counts them.
+     *
+     * @param col Column of the table
+     * @return The number of rows of every group, in order of first appearance
+     */
+    public Map<String, Long> countBy(int col) {
+        Column column = snapshot.getColumn(col);
+        int[] rows = evaluate();
+        long[] counts = new long[column.getDictionarySize()];
+        for (int row : rows) {
+            counts[column.code(row)]++;
+        }
+        Map<String, Long> groups = new LinkedHashMap<>();
+        for (int code : firstAppearances(column, rows)) {
+            groups.put(column.valueOf(code), counts[code]);
+        }
+        return groups;
+    }
+
+    /**
+     * Groups the resulting rows by the value of column {@code col}, and sums the values
+     * of column {@code valueCol}. Values are parsed as decimal numbers once per
+     * distinct value, and {@code null} or blank values are skipped.
+     *
+     * @param col Column of the table
+     * @param valueCol Column of the table containing the values to sum
+     * @return The sum of the values of every group, in order of first appearance
+     *
+     * @throws NumberFormatException If a value is not a number.
+     */
+    public Map<String, Double> sumBy(int col, int valueCol) {
+        Column column = snapshot.getColumn(col);
+        Column values = snapshot.getColumn(valueCol);
+        double[] parsed = new double[values.getDictionarySize()];
+        for (int code = 0; code < parsed.length; code++) {
+            String value = values.valueOf(code);
+            parsed[code] = value == null || value.trim().isEmpty()
+                    ? 0.0 : Double.parseDouble(value.trim());
+        }
+        int[] rows = evaluate();
+        double[] sums = new double[column.getDictionarySize()];
+        for (int row : rows) {
+            sums[column.code(row)] += parsed[values.code(row)];
+        }
+        Map<String, Double> groups = new LinkedHashMap<>();
+        for (int code : firstAppearances(column, rows)) {
+            groups.put(column.valueOf(code), sums[code]);
+        }
+        return groups;
+    }
+
+    /**
+     * Returns the codes of a column in the resulting rows, in order of first appearance.
+     *
+     * @param column A column of the snapshot
+     * @param rows The resulting rows
+     * @return The distinct codes
+     */
+    private static int[] firstAppearances(Column column, int[] rows) {
+        boolean[] seen = new boolean[column.getDictionarySize()];
+        int[] codes = new int[seen.length];
+        int size = 0;
+        for (int row : rows) {
+            int code = column.code(row);
+            if (!seen[code]) {
+                seen[code] = true;
+                codes[size++] = code;
+            }
+        }
+        return Arrays.copyOf(codes, size);
+    }
+
+    /**
+     * Evaluates the query.
+     *
+     * @return The positions of the resulting rows in the snapshot
+     */
+    private int[] evaluate() {
+        int[] rows = stream().toArray();
+        if (sortKeys.isEmpty()) {
+            return rows;
+        }
+        int[][] ranks = new int[sortKeys.size()][];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = sortKeys.get(i).ranks();
+        }
+        Comparator<Integer> order = (a, b) -> {
+            for (int i = 0; i < ranks.length; i++) {
+                Column column = sortKeys.get(i).column;
+                int diff = Integer.compare(ranks[i][column.code(a)], ranks[i][column.code(b)]);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return 0;
+        };
+        IntStream sorted = IntStream.of(rows);
+        if (rows.length >= PARALLEL_THRESHOLD) {
+            sorted = sorted.parallel();
+        }
+        return sorted.boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the stream of the positions of the rows satisfying the filters.
+     *
+     * @return The stream of the positions, in the snapshot, of the rows
+     */
+    private IntStream stream() {
+        boolean[][] accepted = new boolean[filters.size()][];
+        for (int i = 0; i < accepted.length; i++) {
+            accepted[i] = filters.get(i).accepted();
+        }
+        IntStream rows = IntStream.range(0, snapshot.getRowCount());
+        if (snapshot.getRowCount() >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        return rows.filter(row -> {
+            for (int i = 0; i < accepted.length; i++) {
+                if (!accepted[i][filters.get(i).column.code(row)]) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * A condition on the values of a column.
+     */
+    private static final class Filter {
+        /**
+         * The column.
+         */
+        private final Column column;
+        /**
+         * Condition on the values of the column.
+         */
+        private final Predicate<String> predicate;
+
+        /**
+         * Ctor.
+         *
+         * @param column The column
+         * @param predicate Condition on the values of the column
+         */
+        private Filter(Column column, Predicate<String> predicate) {
+            this.column = column;
+            this.predicate = predicate;
+        }
+
+        /**
+         * Evaluates the condition once per distinct value of the column.
+         *
+         * @return For every dictionary code, {@code true} if its value is accepted
+         */
+        private boolean[] accepted() {
+            boolean[] accepted = new boolean[column.getDictionarySize()];
+            for (int code = 0; code < accepted.length; code++) {
+                accepted[code] = predicate.test(column.valueOf(code));
+            }
+            return accepted;
+        }
+    }
+
+    /**
+     * An order on the values of a column.
+     */
+    private static final class SortKey {
+        /**
+         * The column.
+         */
+        private final Column column;
+        /**
+         * Order of the values of the column.
+         */
+        private final Comparator<String> comparator;
+
+        /**
+         * Ctor.
+         *
+         * @param column The column
+         * @param comparator Order of the values of the column
+         */
+        private SortKey(Column column, Comparator<String> comparator) {
+            this.column = column;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Sorts the distinct values of the column.
+         *
+         * @return For every dictionary code, the rank of its value
+         */
+        private int[] ranks() {
+            Integer[] codes = new Integer[column.getDictionarySize()];
+            for (int code = 0; code < codes.length; code++) {
+                codes[code] = code;
+            }
+            Arrays.sort(codes, (a, b) -> comparator.compare(column.valueOf(a), column.valueOf(b)));
+            int[] ranks = new int[codes.length];
+            int rank = 0;
+            for (int i = 0; i < codes.length; i++) {
+                // Equal values have the same rank
+                if (i > 0 && comparator.compare(column.valueOf(codes[i - 1]),
+                                                column.valueOf(codes[i])) != 0) {
+                    rank = i;
+                }
+                ranks[codes[i]] = rank;
+            }
+            return ranks;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+/**
+ * <p>An immutable copy of the content of a table, or of a range of its rows and
+ *    columns, stored by column. Cells are addressed using the same row and column
+ *    indexes of the table they were read from.
+ * </p>
+ *
+ * @see Column
+ * @see org.futon.widgets.Table#snapshot()
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class TableSnapshot {
+    /**
+     * Offset basis of the 64-bit FNV-1a hash.
+     */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    /**
+     * Prime of the 64-bit FNV-1a hash.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Index of the first row of the snapshot inside the table.
+     */
+    private final int firstRow;
+    /**
+     * Index of the first column of the snapshot inside the table.
+     */
+    private final int firstColumn;
+    /**
+     * Number of rows of the snapshot.
+     */
+    private final int rowCount;
+    /**
+     * Number of columns of the snapshot.
+     */
+    private final int columnCount;
+    /**
+     * Columns of the snapshot.
+     */
+    private final Column[] columns;
+
+    /**
+     * Ctor.
+     *
+     * @param firstRow Index of the first row of the snapshot inside the table
+     * @param firstColumn Index of the first column of the snapshot inside the table
+     * @param rowCount Number of rows of the snapshot
+     * @param columns Columns of the snapshot
+     */
+    private TableSnapshot(int firstRow, int firstColumn, int rowCount, Column[] columns) {
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        this.rowCount = rowCount;
+        this.columnCount = columns.length;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a snapshot from a matrix of cells, stored by row.
+     *
+     * @param firstRow Index of the first row of the snapshot inside the table
+     * @param firstColumn Index of the first column of the snapshot inside the table
+     * @param columnCount Number of columns of the snapshot
+     * @param rows Cells of the snapshot, by row
+     * @return A new snapshot
+     */
+    public static TableSnapshot of(int firstRow, int firstColumn, int columnCount,
+                                   String[][] rows) {
+        Builder builder = new Builder(firstRow, firstColumn, columnCount);
+        for (String[] row : rows) {
+            builder.addRow(row);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the index of the first row of the snapshot inside the table.
+     *
+     * @return The index of the first row
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Returns the index of the first column of the snapshot inside the table.
+     *
+     * @return The index of the first column
+     */
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * Returns the number of rows of the snapshot.
+     *
+     * @return The number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of columns of the snapshot.
+     *
+     * @return The number of columns
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns {@code true} if the cell at position {@code (row, col)} of the table
+     * is contained in the snapshot.
+     *
+     * @param row Row of the table
+     * @param col Column of the table
+     * @return {@code true} if the cell is contained in the snapshot
+     */
+    public boolean contains(int row, int col) {
+        return row >= firstRow && row - firstRow < rowCount
+                && col >= firstColumn && col - firstColumn < columnCount;
+    }
+
+    /**
+     * Returns the value of the cell at position {@code (row, col)} of the table.
+     *
+     * @param row Row of the table
+     * @param col Column of the table
+     * @return The value of the cell
+     *
+     * @throws IndexOutOfBoundsException If the cell is not contained in the snapshot.
+     */
+    public String getCellValue(int row, int col) {
+        if (!contains(row, col)) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Cell (%d, %d) is not in the snapshot", row, col));
+        }
+        return columns[col - firstColumn].get(row - firstRow);
+    }
+
+    /**
+     * Returns a column of the snapshot.
+     *
+     * @param col Column of the table
+     * @return The column
+     *
+     * @throws IndexOutOfBoundsException If the column is not contained in the snapshot.
+     */
+    public Column getColumn(int col) {
+        if (col < firstColumn || col - firstColumn >= columnCount) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Column %d is not in the snapshot", col));
+        }
+        return columns[col - firstColumn];
+    }
+
+    /**
+     * Returns the values of the cells of a row.
+     *
+     * @param row Row of the table
+     * @return The values of the cells of the row
+     */
+    public String[] getRow(int row) {
+        String[] values = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            values[i] = columns[i].get(row - firstRow);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the fingerprint of a row of the snapshot.
+     *
+     * @param row Row of the table
+     * @return The fingerprint of the row
+     *
+     * @see #fingerprint(String[])
+     */
+    public long fingerprint(int row) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < columnCount; i++) {
+            hash = hash(hash, columns[i].get(row - firstRow));
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the fingerprint of a row, that is the 64-bit FNV-1a hash of the
+     * characters of its cells. Cells are separated by a marker, and {@code null}
+     * cells are distinguished from empty ones.
+     *
+     * @param values The values of the cells of the row
+     * @return The fingerprint of the row
+     */
+    public static long fingerprint(String[] values) {
+        long hash = FNV_OFFSET;
+        for (String value : values) {
+            hash = hash(hash, value);
+        }
+        return hash;
+    }
+
+    /**
+     * Adds the value of a cell to a FNV-1a hash.
+     *
+     * @param hash The hash so far
+     * @param value The value of the cell
+     * @return The new hash
+     */
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            hash = (hash ^ 0xffff) * FNV_PRIME;
+        } else {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+                hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+            }
+        }
+        // Cells separator
+        return (hash ^ 0xfffe) * FNV_PRIME;
+    }
+
+    /**
+     * Incremental builder of a snapshot, row by row.
+     */
+    public static final class Builder {
+        /**
+         * Index of the first row of the snapshot inside the table.
+         */
+        private final int firstRow;
+        /**
+         * Index of the first column of the snapshot inside the table.
+         */
+        private final int firstColumn;
+        /**
+         * Builders of the columns.
+         */
+        private final Column.Builder[] columns;
+        /**
+         * Number of rows added so far.
+         */
+        private int rowCount;
+
+        /**
+         * Ctor.
+         *
+         * @param firstRow Index of the first row of the snapshot inside the table
+         * @param firstColumn Index of the first column of the snapshot inside the table
+         * @param columnCount Number of columns of the snapshot
+         */
+        public Builder(int firstRow, int firstColumn, int columnCount) {
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+            this.columns = new Column.Builder[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                columns[i] = new Column.Builder();
+            }
+        }
+
+        /**
+         * Adds a row to the snapshot. Missing cells are considered {@code null}, and
+         * cells beyond the number of columns are ignored.
+         *
+         * @param values Values of the cells of the row
+         * @return This builder
+         */
+        public Builder addRow(String[] values) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].add(i < values.length ? values[i] : null);
+            }
+            rowCount++;
+            return this;
+        }
+
+        /**
+         * Builds the snapshot.
+         *
+         * @return A new immutable snapshot
+         */
+        public TableSnapshot build() {
+            Column[] built = new Column[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                built[i] = columns[i].build();
+            }
+            return new TableSnapshot(firstRow, firstColumn, rowCount, built);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>Replaces the content of a file as a whole. The content is first written aside,
+ *    in a temporary file, which is then renamed over the file: a concurrent reader
+ *    never sees a partial content.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class AtomicFile {
+    /**
+     * The content of a file.
+     */
+    public interface Content {
+        /**
+         * Writes the content.
+         *
+         * @param writer Destination of the content, in UTF-8
+         * @throws IOException If the content cannot be written
+         */
+        public void writeTo(Writer writer) throws IOException;
+    }
+
+    /**
+     * Ctor.
+     */
+    private AtomicFile() {
+    }
+
+    /**
+     * Replaces the content of {@code file} with {@code content}, encoded in UTF-8.
+     *
+     * @param file The file
+     * @param content The new content of the file
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(File file, Content content) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temp), StandardCharsets.UTF_8));
+        try {
+            content.writeTo(writer);
+        } finally {
+            writer.close();
+        }
+        if (!temp.renameTo(file)) {
+            // Some platforms can not rename over an existing file
+            file.delete();
+            if (!temp.renameTo(file)) {
+                throw new IOException("Cannot write " + file);
+            }
+        }
+    }
+}
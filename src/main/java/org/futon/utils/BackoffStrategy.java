@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.utils;
+
+import org.futon.exceptions.ConfigurationException;
+
+import java.util.Locale;
+
+/**
+ * Backoff strategies available for a {@link BackoffWaiter}. The strategy used by
+ * default is read from the {@code futon.properties} file.
+ *
+ * @see FProperties.Property#WAITER_STRATEGY
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public enum BackoffStrategy {
+    FIXED {
+        @Override
+        public BackoffWaiter create(long base, long cap, double factor) {
+            return new FixedBackoffWaiter(base);
+        }
+    },
+    LINEAR {
+        @Override
+        public BackoffWaiter create(long base, long cap, double factor) {
+            return new LinearBackoffWaiter(base, cap);
+        }
+    },
+    EXPONENTIAL {
+        @Override
+        public BackoffWaiter create(long base, long cap, double factor) {
+            return new ExponentialBackoffWaiter(base, cap, factor);
+        }
+    },
+    JITTER {
+        @Override
+        public BackoffWaiter create(long base, long cap, double factor) {
+            return new DecorrelatedJitterWaiter(base, cap);
+        }
+    };
+
+    /**
+     * Creates a waiter implementing the strategy.
+     *
+     * @param base Base delay, in milliseconds
+     * @param cap Max delay, in milliseconds
+     * @param factor Growth factor, used only by the exponential strategy
+     * @return A new waiter
+     */
+    public abstract BackoffWaiter create(long base, long cap, double factor);
+
+    /**
+     * Creates the waiter configured in the {@code futon.properties} file.
+     *
+     * @return A new waiter
+     *
+     * @throws ConfigurationException If the configuration is not valid.
+     */
+    public static BackoffWaiter fromProperties() {
+        return fromProperties(FProperties.INSTANCE.snapshot());
+    }
+
+    /**
+     * Creates the waiter configured in a snapshot of the properties.
+     *
+     * @param props The properties
+     * @return A new waiter
+     *
+     * @throws ConfigurationException If the configuration is not valid, or if the base
+     *         delay is not positive, since the waiter would never pause.
+     */
+    public static BackoffWaiter fromProperties(FProperties.Snapshot props) {
+        long base = props.getLong(FProperties.Property.WAITER_BASE_DELAY);
+        if (base <= 0) {
+            throw new ConfigurationException("The base delay of the waiter must be positive: "
+                                             + base);
+        }
+        try {
+            BackoffStrategy strategy = valueOf(
+                    props.get(FProperties.Property.WAITER_STRATEGY).toUpperCase(Locale.ROOT));
+            return strategy.create(base,
+                                   props.getLong(FProperties.Property.WAITER_MAX_DELAY),
+                                   props.getDouble(FProperties.Property.WAITER_FACTOR));
+        } catch (IllegalArgumentException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.utils;
+
+/**
+ * <p>A waiter that knows the number of the attempt and the time elapsed since the
+ *    beginning of the synchronization. Subclasses define how the pause between two
+ *    attempts grows.
+ * </p>
+ * <p>Pauses are computed by {@link #delay(int, long, long)} and never exceed the cap
+ *    given at construction time.
+ * </p>
+ *
+ * @see BackoffStrategy
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public abstract class BackoffWaiter implements Waiter {
+    /**
+     * Base delay, in milliseconds.
+     */
+    private final long base;
+    /**
+     * Max delay, in milliseconds.
+     */
+    private final long cap;
+
+    /**
+     * Ctor.
+     *
+     * @param base Base delay, in milliseconds
+     * @param cap Max delay, in milliseconds
+     */
+    protected BackoffWaiter(long base, long cap) {
+        if (base < 0 || cap < base) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid backoff delays: base %d ms, cap %d ms", base, cap));
+        }
+        this.base = base;
+        this.cap = cap;
+    }
+
+    /**
+     * Returns the pause to do before the next attempt.
+     *
+     * @param attempt Number of failed attempts so far (starting from 1)
+     * @param elapsed Milliseconds elapsed since the beginning of the synchronization
+     * @param previous Previous pause, in milliseconds, or zero if this is the first one
+     * @return The pause in milliseconds, between the base and the max delay
+     */
+    public final long delay(int attempt, long elapsed, long previous) {
+        return Math.min(cap, Math.max(base, computeDelay(attempt, elapsed, previous)));
+    }
+
+    /**
+     * Computes the pause to do before the next attempt. The result is bounded by
+     * {@link #delay(int, long, long)}.
+     *
+     * @param attempt Number of failed attempts so far (starting from 1)
+     * @param elapsed Milliseconds elapsed since the beginning of the synchronization
+     * @param previous Previous pause, in milliseconds, or zero if this is the first one
+     * @return The pause in milliseconds
+     */
+    protected abstract long computeDelay(int attempt, long elapsed, long previous);
+
+    /**
+     * Waits for the base delay.
+     */
+    @Override
+    public void sleep() {
+        pause(base);
+    }
+
+    /**
+     * Waits for the pause computed by {@link #delay(int, long, long)}, cut at the
+     * deadline.
+     */
+    @Override
+    public long pause(int attempt, long elapsed, long previous, long since, long remaining) {
+        long delay = Math.min(delay(attempt, elapsed, previous), remaining);
+        pause(delay);
+        return delay;
+    }
+
+    /**
+     * Returns the base delay.
+     *
+     * @return The base delay, in milliseconds
+     */
+    public long getBase() {
+        return base;
+    }
+
+    /**
+     * Returns the max delay.
+     *
+     * @return The max delay, in milliseconds
+     */
+    public long getCap() {
+        return cap;
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Notification that the content of a container changed. A platform binding calls
+ *    {@link #signal()} whenever it observes a change (for example, from a DOM
+ *    mutation observer), and threads waiting for a widget park until the next change.
+ * </p>
+ * <p>Every change increments a version. A waiter reads the version before looking for
+ *    a widget and then waits for a version greater than it, so a change happening
+ *    between the lookup and the wait is never lost.
+ * </p>
+ *
+ * @see EventWaiter
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ChangeSignal {
+    /**
+     * Lock guarding the version.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Condition signalled at every change.
+     */
+    private final Condition changed = lock.newCondition();
+    /**
+     * Number of changes so far.
+     */
+    private long version;
+
+    /**
+     * Returns the number of changes so far.
+     *
+     * @return The current version
+     */
+    public long version() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Notifies a change, waking up all the waiting threads.
+     */
+    public void signal() {
+        lock.lock();
+        try {
+            version++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for a change after version {@code since}, at most for {@code millis}
+     * milliseconds. If the thread is interrupted, the method returns immediately,
+     * preserving the interrupted status.
+     *
+     * @param since The last version seen by the caller
+     * @param millis Max time to wait, in milliseconds
+     * @return {@code true} if a change happened after version {@code since}
+     */
+    public boolean await(long since, long millis) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        lock.lock();
+        try {
+            while (version <= since) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = changed.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return version > since;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.utils;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>A waiter using the decorrelated jitter strategy: every pause is a random value
+ *    between the base delay and three times the previous pause, up to the cap.
+ * </p>
+ * <p>The randomness spreads the polls of many scripts waiting on the same page,
+ *    avoiding to flood it with synchronized requests.
+ * </p>
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class DecorrelatedJitterWaiter extends BackoffWaiter {
+    /**
+     * Source of randomness, or {@code null} to use the one of the current thread.
+     */
+    private final Random random;
+
+    /**
+     * Ctor. The waiter uses the source of randomness of the current thread, so it can
+     * be shared among threads without contention.
+     *
+     * @param base Min pause, in milliseconds
+     * @param cap Max pause, in milliseconds
+     */
+    public DecorrelatedJitterWaiter(long base, long cap) {
+        this(base, cap, null);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param base Min pause, in milliseconds
+     * @param cap Max pause, in milliseconds
+     * @param random Source of randomness
+     */
+    public DecorrelatedJitterWaiter(long base, long cap, Random random) {
+        super(base, cap);
+        this.random = random;
+    }
+
+    @Override
+    protected long computeDelay(int attempt, long elapsed, long previous) {
+        long upper = Math.max(getBase(), Math.min(getCap(), previous * 3));
+        Random source = random != null ? random : ThreadLocalRandom.current();
+        return getBase() + (long) (source.nextDouble() * (upper - getBase()));
+    }
+}
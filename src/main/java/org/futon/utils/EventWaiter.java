@@ -0,0 +1,154 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.utils;
+
+/**
+ * <p>A waiter that parks until the container changes, instead of sleeping for a
+ *    fixed time. The reaction latency is not bounded by a poll interval, and the
+ *    testable object is looked for again only if something changed.
+ * </p>
+ * <p>Platform bindings push the changes through {@link #signal()}. Since a binding
+ *    could miss some change, the waiter never parks longer than a max pause, after
+ *    which the testable object is looked for anyway.
+ * </p>
+ *
+ * @see ChangeSignal
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class EventWaiter implements Waiter {
+    /**
+     * Signal of the changes of the container.
+     */
+    private final ChangeSignal signal;
+    /**
+     * Max pause, in milliseconds.
+     */
+    private final long maxPause;
+
+    /**
+     * Ctor.
+     *
+     * @param maxPause Max pause, in milliseconds, if no change is signalled
+     */
+    public EventWaiter(long maxPause) {
+        this(new ChangeSignal(), maxPause);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param signal Signal of the changes of the container
+     * @param maxPause Max pause, in milliseconds, if no change is signalled
+     */
+    public EventWaiter(ChangeSignal signal, long maxPause) {
+        if (maxPause <= 0) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid max pause: %d ms", maxPause));
+        }
+        this.signal = signal;
+        this.maxPause = maxPause;
+    }
+
+    /**
+     * Notifies a change of the container.
+     */
+    public void signal() {
+        signal.signal();
+    }
+
+    /**
+     * Returns the current version of the container.
+     *
+     * @return The number of changes so far
+     */
+    @Override
+    public long version() {
+        return signal.version();
+    }
+
+    /**
+     * Waits for a change after version {@code since}, at most for {@code millis}
+     * milliseconds or for the max pause, whichever is shorter.
+     *
+     * @param since The last version seen by the caller
+     * @param millis Max time to wait, in milliseconds
+     * @return {@code true} if a change happened after version {@code since}
+     */
+    public boolean await(long since, long millis) {
+        return signal.await(since, Math.min(millis, maxPause));
+    }
+
+    /**
+     * Waits for the next change, at most for the max pause.
+     */
+    @Override
+    public void sleep() {
+        await(version(), maxPause);
+    }
+
+    /**
+     * Waits for a change after the beginning of the failed attempt, at most until the
+     * deadline or for the max pause.
+     */
+    @Override
+    public long pause(int attempt, long elapsed, long previous, long since, long remaining) {
+        long start = System.nanoTime();
+        await(since, remaining);
+        return (System.nanoTime() - start) / 1000000L;
+    }
+
+    /**
+     * Waits for the next change, at most for {@code millis} milliseconds or for the max
+     * pause.
+     *
+     * @param millis Milliseconds to wait
+     */
+    @Override
+    public void pause(long millis) {
+        if (millis > 0) {
+            await(version(), millis);
+        }
+    }
+
+    /**
+     * Returns the signal of the changes of the container.
+     *
+     * @return The signal
+     */
+    public ChangeSignal getSignal() {
+        return signal;
+    }
+
+    /**
+     * Returns the max pause.
+     *
+     * @return The max pause, in milliseconds
+     */
+    public long getMaxPause() {
+        return maxPause;
+    }
+}
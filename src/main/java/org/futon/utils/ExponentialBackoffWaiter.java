@@ -0,0 +1,60 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.utils;
+
+/**
+ * A waiter whose pause grows exponentially with the number of attempts:
+ * {@code base * factor ^ (attempt - 1)}, up to the cap.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExponentialBackoffWaiter extends BackoffWaiter {
+    /**
+     * Growth factor of the pause.
+     */
+    private final double factor;
+
+    /**
+     * Ctor.
+     *
+     * @param base Pause after the first attempt, in milliseconds
+     * @param cap Max pause, in milliseconds
+     * @param factor Growth factor of the pause (greater or equal to 1)
+     */
+    public ExponentialBackoffWaiter(long base, long cap, double factor) {
+        super(base, cap);
+        if (factor < 1.0) {
+            throw new IllegalArgumentException("Invalid backoff factor: " + factor);
+        }
+        this.factor = factor;
+    }
+
+    @Override
+    protected long computeDelay(int attempt, long elapsed, long previous) {
+        // Math.pow saturates to infinity, that the cast turns into Long.MAX_VALUE
+        return (long) (getBase() * Math.pow(factor, attempt - 1));
+    }
+}
@@ -26,11 +26,38 @@ package org.futon.utils;
 import org.futon.exceptions.ConfigurationException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Properties;
 
 /**
- * Configuration properties of {@code futon}. The file read has to be called
- * {@code futon.properties} and it is to be placed in the classpath.
+ * <p>Configuration properties of {@code futon}. The file read has to be called
+ *    {@code futon.properties} and it is to be placed in the classpath. A different file
+ *    can be given through the {@code org.futon.properties.file} system property.
+ * </p>
+ * <p>The value of a property is taken, in order of precedence, from the system property
+ *    with the same key, from the environment variable named after the key (for example
+ *    {@code ORG_FUTON_WIDGET_MAX_RETRIES}), from the file, or from its default value. If
+ *    the file is missing, the other sources are used.
+ * </p>
+ * <p>Values are parsed and validated once, into an immutable {@link Snapshot}. If the
+ *    {@code org.futon.properties.watch} property is {@code true}, the file is watched,
+ *    and a new snapshot is published every time it changes. Reading a property never
+ *    locks: who caches a value derived from the properties can compare the snapshot
+ *    it was derived from with the current one, to know when to derive it again.
+ * </p>
  *
  * @see org.futon.exceptions.ConfigurationException
  *
@@ -44,26 +71,40 @@ public enum FProperties {
 
     private static final String PROPS_FILE_NAME = "futon.properties";
 
-    // Futon properties file
-    private final Properties props;
+    /**
+     * System property giving the path of the properties file.
+     */
+    private static final String PROPS_FILE_KEY = "org.futon.properties.file";
+
+    // Futon properties file, if it is on the file system
+    private final Path file;
+
+    // Current values of the properties
+    private volatile Snapshot snapshot;
 
     /**
      * Ctor.
      *
-     * @throws ConfigurationException If the properties file can not be loaded.
+     * @throws ConfigurationException If the properties file can not be loaded, or if a
+     *         value is not valid.
      */
     private FProperties() throws ConfigurationException {
-        // Load properties
-        props = new Properties();
-        try {
-            props.load(Thread.currentThread()
-                             .getContextClassLoader()
-                             .getResourceAsStream(PROPS_FILE_NAME));
-        } catch (IOException e) {
-            throw new ConfigurationException(e);
+        file = locate();
+        snapshot = new Snapshot(load(file), 0L);
+        if (file != null && snapshot.getBoolean(Property.WATCH)) {
+            watch(file);
         }
     }
 
+    /**
+     * Returns the current values of the properties.
+     *
+     * @return The current snapshot
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
     /**
      * Returns the value of the property, or its default value.
      *
@@ -71,15 +112,423 @@ public enum FProperties {
      * @return The value of the property
      */
     public String get(Property property) {
-        return props.getProperty(property.getKey(), property.getDefaultValue());
+        return snapshot.get(property);
+    }
+
+    /**
+     * Returns the value of an integer property.
+     *
+     * @param property The property
+     * @return The value of the property
+     */
+    public int getInt(Property property) {
+        return snapshot.getInt(property);
+    }
+
+    /**
+     * Returns the value of a numeric property.
+     *
+     * @param property The property
+     * @return The value of the property
+     */
+    public long getLong(Property property) {
+        return snapshot.getLong(property);
+    }
+
+    /**
+     * Returns the value of a numeric property.
+     *
+     * @param property The property
+     * @return The value of the property
+     */
+    public double getDouble(Property property) {
+        return snapshot.getDouble(property);
+    }
+
+    /**
+     * Returns the value of a boolean property.
+     *
+     * @param property The property
+     * @return The value of the property
+     */
+    public boolean getBoolean(Property property) {
+        return snapshot.getBoolean(property);
+    }
+
+    /**
+     * Reads again the properties, publishing a new snapshot if any value changed.
+     *
+     * @return The current snapshot
+     *
+     * @throws ConfigurationException If the properties file can not be loaded, or if a
+     *         value is not valid. The current snapshot is kept.
+     */
+    public synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        String[] values = load(file);
+        if (!Arrays.equals(values, current.values)) {
+            current = new Snapshot(values, current.version + 1);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Locates the properties file on the file system.
+     *
+     * @return The properties file, or {@code null} if it is missing or it is not on the
+     *         file system
+     */
+    private static Path locate() {
+        String path = System.getProperty(PROPS_FILE_KEY, System.getenv(envName(PROPS_FILE_KEY)));
+        if (path != null && path.trim().length() > 0) {
+            return Paths.get(path.trim()).toAbsolutePath();
+        }
+        URL url = resource();
+        if (url != null && "file".equals(url.getProtocol())) {
+            try {
+                return Paths.get(url.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the properties file in the classpath.
+     *
+     * @return The properties file, or {@code null} if missing
+     */
+    private static URL resource() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = FProperties.class.getClassLoader();
+        }
+        return loader.getResource(PROPS_FILE_NAME);
+    }
+
+    /**
+     * Reads the values of all the properties from their sources.
+     *
+     * @param file The properties file, or {@code null} to read it from the classpath
+     * @return The values of the properties, indexed by their ordinal
+     *
+     * @throws ConfigurationException If the file can not be read, or if a value is not
+     *         valid.
+     */
+    private static String[] load(Path file) {
+        Properties props = new Properties();
+        try {
+            InputStream in = null;
+            if (file != null) {
+                in = Files.isRegularFile(file) ? Files.newInputStream(file) : null;
+            } else {
+                URL url = resource();
+                in = url != null ? url.openStream() : null;
+            }
+            if (in != null) {
+                try {
+                    props.load(in);
+                } finally {
+                    in.close();
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+        Property[] properties = Property.values();
+        String[] values = new String[properties.length];
+        for (Property property : properties) {
+            String key = property.getKey();
+            String value = System.getProperty(key);
+            if (value == null) {
+                value = System.getenv(envName(key));
+            }
+            if (value == null) {
+                value = props.getProperty(key, property.getDefaultValue());
+            }
+            values[property.ordinal()] = value.trim();
+        }
+        return values;
+    }
+
+    /**
+     * Returns the name of the environment variable of a property.
+     *
+     * @param key The key of the property
+     * @return The name of the environment variable
+     */
+    private static String envName(String key) {
+        return key.replace('.', '_').toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Watches the properties file, reloading it every time it changes. If the directory
+     * of the file does not exist or can not be watched, the file is not watched and
+     * the values loaded at startup are kept.
+     *
+     * @param file The properties file
+     */
+    private void watch(final Path file) {
+        Path directory = file.getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        final WatchService service;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            return;
+        }
+        try {
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                               StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            try {
+                service.close();
+            } catch (IOException ignored) {
+                // Nothing is watched
+            }
+            return;
+        }
+        Thread watcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        WatchKey key = service.take();
+                        boolean changed = false;
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            changed |= file.getFileName().equals(event.context());
+                        }
+                        if (changed) {
+                            try {
+                                reload();
+                            } catch (ConfigurationException e) {
+                                // A file being written or not valid: the snapshot is kept
+                            }
+                        }
+                        key.reset();
+                    }
+                } catch (InterruptedException | ClosedWatchServiceException e) {
+                    // Watching stops
+                }
+            }
+        }, "futon-properties-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Immutable values of all the properties, parsed and validated once. Reading a value
+     * is an array access.
+     */
+    public static final class Snapshot {
+        /**
+         * Values of the properties, indexed by their ordinal.
+         */
+        private final String[] values;
+        /**
+         * Parsed values of the properties, indexed by their ordinal.
+         */
+        private final Object[] parsed;
+        /**
+         * Version of the snapshot, incremented at every change.
+         */
+        private final long version;
+
+        /**
+         * Ctor.
+         *
+         * @param values Values of the properties, indexed by their ordinal
+         * @param version Version of the snapshot
+         *
+         * @throws ConfigurationException If a value is not valid.
+         */
+        private Snapshot(String[] values, long version) {
+            this.values = values;
+            this.version = version;
+            Property[] properties = Property.values();
+            parsed = new Object[properties.length];
+            for (Property property : properties) {
+                String value = values[property.ordinal()];
+                try {
+                    parsed[property.ordinal()] = property.getType().parse(value);
+                } catch (IllegalArgumentException e) {
+                    throw new ConfigurationException("Invalid value '" + value
+                                                     + "' of property " + property.getKey()
+                                                     + ": " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Returns the version of the snapshot, incremented every time the properties
+         * change.
+         *
+         * @return The version of the snapshot
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the value of the property.
+         *
+         * @param property The property
+         * @return The value of the property
+         */
+        public String get(Property property) {
+            return values[property.ordinal()];
+        }
+
+        /**
+         * Returns the value of an integer property.
+         *
+         * @param property The property
+         * @return The value of the property
+         *
+         * @throws ClassCastException If the property is not numeric.
+         */
+        public int getInt(Property property) {
+            return ((Number) parsed[property.ordinal()]).intValue();
+        }
+
+        /**
+         * Returns the value of a numeric property.
+         *
+         * @param property The property
+         * @return The value of the property
+         *
+         * @throws ClassCastException If the property is not numeric.
+         */
+        public long getLong(Property property) {
+            return ((Number) parsed[property.ordinal()]).longValue();
+        }
+
+        /**
+         * Returns the value of a numeric property.
+         *
+         * @param property The property
+         * @return The value of the property
+         *
+         * @throws ClassCastException If the property is not numeric.
+         */
+        public double getDouble(Property property) {
+            return ((Number) parsed[property.ordinal()]).doubleValue();
+        }
+
+        /**
+         * Returns the value of a boolean property.
+         *
+         * @param property The property
+         * @return The value of the property
+         *
+         * @throws ClassCastException If the property is not boolean.
+         */
+        public boolean getBoolean(Property property) {
+            return (Boolean) parsed[property.ordinal()];
+        }
+    }
+
+    /**
+     * Types of the values of the properties.
+     */
+    public enum Type {
+        STRING {
+            @Override
+            Object parse(String value) {
+                return value;
+            }
+        },
+        INTEGER {
+            @Override
+            Object parse(String value) {
+                return (int) nonNegative(Integer.parseInt(value));
+            }
+        },
+        LONG {
+            @Override
+            Object parse(String value) {
+                return nonNegative(Long.parseLong(value));
+            }
+        },
+        DOUBLE {
+            @Override
+            Object parse(String value) {
+                double parsed = Double.parseDouble(value);
+                if (!(parsed >= 0.0)) {
+                    throw new IllegalArgumentException("negative or not a number");
+                }
+                return parsed;
+            }
+        },
+        BOOLEAN {
+            @Override
+            Object parse(String value) {
+                if ("true".equalsIgnoreCase(value)) {
+                    return Boolean.TRUE;
+                }
+                if ("false".equalsIgnoreCase(value)) {
+                    return Boolean.FALSE;
+                }
+                throw new IllegalArgumentException("not a boolean");
+            }
+        };
+
+        /**
+         * Parses and validates a value.
+         *
+         * @param value The value
+         * @return The parsed value
+         *
+         * @throws IllegalArgumentException If the value is not valid.
+         */
+        abstract Object parse(String value);
+
+        /**
+         * Checks that a number is not negative.
+         *
+         * @param value The number
+         * @return The number
+         *
+         * @throws IllegalArgumentException If the number is negative.
+         */
+        private static long nonNegative(long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("negative");
+            }
+            return value;
+        }
     }
 
     /**
      * Possible properties used in {@code futon}.
      */
     public enum Property {
-        MAX_RETRIES("org.futon.widget.max.retries", "100"),
-        RELOAD_RANGE("org.futon.widget.reload.range", "10");
+        MAX_RETRIES("org.futon.widget.max.retries", "100", Type.INTEGER),
+        RELOAD_RANGE("org.futon.widget.reload.range", "10", Type.INTEGER),
+        RELOAD_WINDOW("org.futon.widget.reload.window", "100", Type.LONG),
+        SYNC_TIMEOUT("org.futon.widget.sync.timeout", "30000", Type.LONG),
+        EXISTS_TIMEOUT("org.futon.widget.exists.timeout", "2000", Type.LONG),
+        CACHE_TESTABLE("org.futon.widget.cache", "false", Type.BOOLEAN),
+        TABLE_PAGE_SIZE("org.futon.table.page.size", "100", Type.INTEGER),
+        ASYNC_THREADS("org.futon.async.threads", "0", Type.INTEGER),
+        WAITER_STRATEGY("org.futon.waiter.strategy", "exponential", Type.STRING),
+        WAITER_BASE_DELAY("org.futon.waiter.base.delay", "10", Type.LONG),
+        WAITER_MAX_DELAY("org.futon.waiter.max.delay", "1000", Type.LONG),
+        WAITER_FACTOR("org.futon.waiter.factor", "2", Type.DOUBLE),
+        ADAPTIVE_ENABLED("org.futon.sync.adaptive", "false", Type.BOOLEAN),
+        ADAPTIVE_MIN_SAMPLES("org.futon.sync.adaptive.min.samples", "20", Type.INTEGER),
+        ADAPTIVE_BUDGET_FACTOR("org.futon.sync.adaptive.budget.factor", "3", Type.DOUBLE),
+        ADAPTIVE_MIN_BUDGET("org.futon.sync.adaptive.min.budget", "2000", Type.LONG),
+        ADAPTIVE_FILE("org.futon.sync.adaptive.file", "", Type.STRING),
+        METRICS_ENABLED("org.futon.metrics", "false", Type.BOOLEAN),
+        METRICS_JMX("org.futon.metrics.jmx", "false", Type.BOOLEAN),
+        METRICS_FILE("org.futon.metrics.file", "", Type.STRING),
+        METRICS_INTERVAL("org.futon.metrics.interval", "60000", Type.LONG),
+        WATCH("org.futon.properties.watch", "false", Type.BOOLEAN);
         /**
          * Property key.
          */
@@ -88,14 +537,21 @@ public enum FProperties {
          * Default value.
          */
         private String defaultValue;
+        /**
+         * Type of the value.
+         */
+        private Type type;
 
         /**
          * Ctor.
          * @param key Property key
+         * @param defaultValue Default value
+         * @param type Type of the value
          */
-        private Property(String key, String defaultValue) {
+        private Property(String key, String defaultValue, Type type) {
             this.key = key;
             this.defaultValue = defaultValue;
+            this.type = type;
         }
 
         /**
@@ -115,5 +571,14 @@ public enum FProperties {
         public String getDefaultValue() {
             return this.defaultValue;
         }
+
+        /**
+         * Returns the type of the value of the property.
+         *
+         * @return Property's type
+         */
+        public Type getType() {
+            return this.type;
+        }
     }
 }
@@ -24,7 +24,15 @@
 package org.futon.utils;
 
 /**
- * Implement waiting strategy of a functional testing platform.
+ * <p>Implement waiting strategy of a functional testing platform.</p>
+ * <p>The synchronization of an action asks the waiter to wait before every new
+ *    attempt through {@link #pause(int, long, long, long, long)}. Waiters knowing the
+ *    number of the attempt, or notified of the changes of the container, override it.
+ *    By default, the waiter sleeps through {@link #sleep()}.
+ * </p>
+ *
+ * @see BackoffWaiter
+ * @see EventWaiter
  *
  * @author Riccardo Cardin
  * @version 1.0
@@ -35,4 +43,50 @@ public interface Waiter {
      * Wait for a while, blocking the execution of the test script.
      */
     public void sleep();
+
+    /**
+     * Returns the version of the container, if the waiter is notified of its changes.
+     * The synchronization reads it at the beginning of every attempt. By default, the
+     * version is always zero.
+     *
+     * @return The number of changes of the container so far, or zero
+     */
+    public default long version() {
+        return 0L;
+    }
+
+    /**
+     * Waits before the next attempt of a synchronization, never beyond its deadline.
+     * By default, #sleep is called.
+     *
+     * @param attempt Number of failed attempts so far (starting from 1)
+     * @param elapsed Milliseconds elapsed since the beginning of the synchronization
+     * @param previous Previous pause, in milliseconds, or zero if this is the first one
+     * @param since Version of the container at the beginning of the failed attempt
+     * @param remaining Milliseconds left before the deadline of the synchronization
+     * @return The pause done, in milliseconds, if known, or zero
+     */
+    public default long pause(int attempt, long elapsed, long previous, long since,
+                              long remaining) {
+        sleep();
+        return 0L;
+    }
+
+    /**
+     * Waits for {@code millis} milliseconds, blocking the execution of the test script.
+     * If the thread is interrupted, the method returns immediately, preserving the
+     * interrupted status.
+     *
+     * @param millis Milliseconds to wait
+     */
+    public default void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
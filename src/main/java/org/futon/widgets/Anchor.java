@@ -23,8 +23,11 @@
  */
 package org.futon.widgets;
 
+import org.futon.actions.Reloadable;
 import org.futon.actions.Verifiable;
-import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.sync.SyncSettings;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * An anchor (a.k.a. a link).
@@ -34,18 +37,54 @@ import org.futon.exceptions.ObjectNotFoundException;
  * @since 1.0
  */
 public abstract class Anchor extends ClickableWidget implements Verifiable {
+    /**
+     * Ctor.
+     */
+    public Anchor() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Anchor(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Anchor(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
+
+    /**
+     * Checks asynchronously if the widget exists.
+     *
+     * @return The future result of the check.
+     *
+     * @see #async(java.util.function.Supplier, long)
+     */
+    public CompletableFuture<Boolean> existsAsync() {
+        return existsAsync(0L);
+    }
 
-    @Override
-    public boolean exists() {
-        boolean result = true;
-        try {
-            // Wait for the object to exists
-            waitForTestable();
-        } catch (ObjectNotFoundException oe) {
-            // In case the object could not be found using
-            // synchronization, return false.
-            result = false;
-        }
-        return result;
+    /**
+     * Checks asynchronously if the widget exists, waiting for it at most
+     * {@code timeout} milliseconds.
+     *
+     * @param timeout Time budget of the check, in milliseconds.
+     * @return The future result of the check.
+     *
+     * @see #async(java.util.function.Supplier, long)
+     */
+    public CompletableFuture<Boolean> existsAsync(long timeout) {
+        return async(this::exists, timeout);
     }
 }
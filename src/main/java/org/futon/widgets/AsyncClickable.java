@@ -0,0 +1,68 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.widgets;
+
+import org.futon.actions.Clickable;
+import org.futon.sync.AsyncExecutor;
+import org.futon.sync.ExecutionContext;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Clickable} widget that can also be clicked asynchronously.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public interface AsyncClickable extends Clickable {
+    /**
+     * Clicks on the widget asynchronously.
+     *
+     * @return The future completion of the click.
+     *
+     * @see #clickAsync(long)
+     */
+    public default CompletableFuture<Void> clickAsync() {
+        return clickAsync(0L);
+    }
+
+    /**
+     * Clicks on the widget asynchronously, using a specific time budget. The click is
+     * executed by the {@link AsyncExecutor}, inside a new {@link ExecutionContext}.
+     *
+     * @param timeout Time budget of the click, in milliseconds, or zero for the default
+     *                one.
+     * @return The future completion of the click.
+     *
+     * @see ExecutionContext#submit(java.util.function.Supplier, long,
+     *      java.util.concurrent.Executor)
+     */
+    public default CompletableFuture<Void> clickAsync(long timeout) {
+        return ExecutionContext.submit(() -> {
+            click();
+            return null;
+        }, timeout, AsyncExecutor.get());
+    }
+}
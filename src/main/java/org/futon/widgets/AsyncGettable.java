@@ -0,0 +1,65 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.widgets;
+
+import org.futon.actions.Gettable;
+import org.futon.sync.AsyncExecutor;
+import org.futon.sync.ExecutionContext;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link Gettable} widget whose value can also be read asynchronously.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public interface AsyncGettable extends Gettable {
+    /**
+     * Returns asynchronously the value of the widget.
+     *
+     * @return The future value of the widget.
+     *
+     * @see #getValueAsync(long)
+     */
+    public default CompletableFuture<String> getValueAsync() {
+        return getValueAsync(0L);
+    }
+
+    /**
+     * Returns asynchronously the value of the widget, using a specific time budget. The
+     * value is read by the {@link AsyncExecutor}, inside a new {@link ExecutionContext}.
+     *
+     * @param timeout Time budget of the action, in milliseconds, or zero for the default
+     *                one.
+     * @return The future value of the widget.
+     *
+     * @see ExecutionContext#submit(java.util.function.Supplier, long,
+     *      java.util.concurrent.Executor)
+     */
+    public default CompletableFuture<String> getValueAsync(long timeout) {
+        return ExecutionContext.submit(this::getValue, timeout, AsyncExecutor.get());
+    }
+}
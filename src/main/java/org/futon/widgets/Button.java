@@ -23,7 +23,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Gettable;
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * A button that is clickable and with a gettable label.
@@ -32,6 +33,31 @@ import org.futon.actions.Gettable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class Button extends ClickableWidget implements Gettable {
+public abstract class Button extends ClickableWidget implements AsyncGettable {
+    /**
+     * Ctor.
+     */
+    public Button() {
+        super();
+    }
 
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Button(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Button(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 }
@@ -23,6 +23,9 @@
  */
 package org.futon.widgets;
 
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
+
 /**
  * A single check (like a boolean value).
  *
@@ -31,4 +34,30 @@ package org.futon.widgets;
  * @since 1.0
  */
 public abstract class Check extends ClickableWidget {
+    /**
+     * Ctor.
+     */
+    public Check() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Check(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Check(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 }
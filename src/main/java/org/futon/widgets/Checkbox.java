@@ -23,6 +23,9 @@
  */
 package org.futon.widgets;
 
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
+
 /**
  * A value of a group of checkboxes.
  *
@@ -31,4 +34,30 @@ package org.futon.widgets;
  * @since 1.0
  */
 public abstract class Checkbox extends ClickableWidget {
+    /**
+     * Ctor.
+     */
+    public Checkbox() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Checkbox(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Checkbox(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 }
@@ -23,7 +23,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Clickable;
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * A clickable widget.
@@ -32,7 +33,34 @@ import org.futon.actions.Clickable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class ClickableWidget extends Widget implements Clickable {
+public abstract class ClickableWidget extends Widget implements AsyncClickable {
+    /**
+     * Ctor.
+     */
+    public ClickableWidget() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public ClickableWidget(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public ClickableWidget(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
+
     /**
      * Clicks on the widget.
      */
@@ -25,6 +25,7 @@ package org.futon.widgets;
 
 import org.futon.actions.Reloadable;
 import org.futon.exceptions.InvalidActionException;
+import org.futon.sync.SyncSettings;
 
 /**
  * A section that can be closed.
@@ -34,6 +35,32 @@ import org.futon.exceptions.InvalidActionException;
  * @since 1.0
  */
 public abstract class ClosableSection extends ClickableWidget implements Reloadable {
+    /**
+     * Ctor.
+     */
+    public ClosableSection() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public ClosableSection(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public ClosableSection(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 
     /**
      * Closes the section.
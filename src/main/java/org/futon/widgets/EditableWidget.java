@@ -24,9 +24,18 @@
 package org.futon.widgets;
 
 import org.futon.actions.Editable;
+import org.futon.actions.Reloadable;
+import org.futon.sync.ExecutionContext;
+import org.futon.sync.SyncSettings;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
- * A widget which value could be edited.
+ * <p>A widget which value could be edited.</p>
+ * <p>The value to set is not stored in the widget, but in the execution context of the
+ *    action, so the same widget can be edited by many threads at the same time.
+ *    Platform specific widgets read it using #getValueToSet.
+ * </p>
  *
  * @author Riccardo Cardin
  * @version 1.0
@@ -34,9 +43,31 @@ import org.futon.actions.Editable;
  */
 public abstract class EditableWidget extends Widget implements Editable {
     /**
-     * The value of the widget.
+     * Ctor.
+     */
+    public EditableWidget() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public EditableWidget(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
      */
-    private String value;
+    public EditableWidget(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 
     /**
      * Set the value on the widget.
@@ -47,7 +78,45 @@ public abstract class EditableWidget extends Widget implements Editable {
      */
     @Override
     public void setValue(String value) {
-        this.value = value;
-        doAction();
+        ExecutionContext.withValue(value).execute(() -> doAction());
+    }
+
+    /**
+     * Returns the value to be setted by the current action. The method is meant to be
+     * called inside #doOnTestable.
+     *
+     * @return The value to be setted, or {@code null} if called outside an action.
+     */
+    protected final String getValueToSet() {
+        ExecutionContext context = ExecutionContext.current();
+        return context != null ? context.getValue() : null;
+    }
+
+    /**
+     * Sets the value on the widget asynchronously.
+     *
+     * @param value The value to be setted.
+     * @return The future completion of the action.
+     *
+     * @see #async(java.util.function.Supplier, long)
+     */
+    public CompletableFuture<Void> setValueAsync(String value) {
+        return setValueAsync(value, 0L);
+    }
+
+    /**
+     * Sets the value on the widget asynchronously, using a specific time budget.
+     *
+     * @param value The value to be setted.
+     * @param timeout Time budget of the action, in milliseconds.
+     * @return The future completion of the action.
+     *
+     * @see #async(java.util.function.Supplier, long)
+     */
+    public CompletableFuture<Void> setValueAsync(final String value, long timeout) {
+        return async(() -> {
+            setValue(value);
+            return null;
+        }, timeout);
     }
 }
@@ -23,7 +23,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Gettable;
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * An unmodifiable message area.
@@ -32,5 +33,31 @@ import org.futon.actions.Gettable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class Message extends Widget implements Gettable {
-}
\ No newline at end of file
+public abstract class Message extends Widget implements AsyncGettable {
+    /**
+     * Ctor.
+     */
+    public Message() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Message(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Message(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
+}
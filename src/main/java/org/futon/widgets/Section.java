@@ -23,8 +23,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Clickable;
 import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * A section.
@@ -33,7 +33,34 @@ import org.futon.actions.Reloadable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class Section extends Widget implements Reloadable, Clickable {
+public abstract class Section extends Widget implements Reloadable, AsyncClickable {
+    /**
+     * Ctor.
+     */
+    public Section() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Section(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Section(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
+
     @Override
     public void click() {
         doAction();
@@ -23,7 +23,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Gettable;
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * A dropdown menu made using the HTML primitives.
@@ -32,6 +33,31 @@ import org.futon.actions.Gettable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class Select extends EditableWidget implements Gettable {
+public abstract class Select extends EditableWidget implements AsyncGettable {
+    /**
+     * Ctor.
+     */
+    public Select() {
+        super();
+    }
 
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Select(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Select(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 }
@@ -31,7 +31,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Gettable;
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * A drop down menu realized using CSS and not the HTML primitive {@code select}.
@@ -40,6 +41,31 @@ import org.futon.actions.Gettable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class SelectJs extends EditableWidget implements Gettable {
+public abstract class SelectJs extends EditableWidget implements AsyncGettable {
+    /**
+     * Ctor.
+     */
+    public SelectJs() {
+        super();
+    }
 
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public SelectJs(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public SelectJs(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 }
@@ -23,8 +23,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Clickable;
 import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * A section inside a tab.
@@ -33,7 +33,7 @@ import org.futon.actions.Reloadable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class TabbedSection extends Widget implements Reloadable, Clickable {
+public abstract class TabbedSection extends Widget implements Reloadable, AsyncClickable {
     /**
      * Tab's label.
      */
@@ -48,6 +48,30 @@ public abstract class TabbedSection extends Widget implements Reloadable, Clicka
         this.title = title;
     }
 
+    /**
+     * Ctor.
+     *
+     * @param container The container of the section.
+     * @param title Tab's label
+     */
+    public TabbedSection(Reloadable container, String title) {
+        super(container);
+        this.title = title;
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the section.
+     * @param title Tab's label
+     * @param settings The synchronization settings of the section and of the widgets
+     *                 inside it, or {@code null} to inherit them from the container.
+     */
+    public TabbedSection(Reloadable container, String title, SyncSettings settings) {
+        super(container, settings);
+        this.title = title;
+    }
+
     @Override
     public void click() {
         doAction();
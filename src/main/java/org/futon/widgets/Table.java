@@ -23,37 +23,687 @@
  */
 package org.futon.widgets;
 
+import org.futon.Testable;
 import org.futon.actions.Reloadable;
+import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.sync.SyncSettings;
+import org.futon.table.Paging;
+import org.futon.table.Row;
+import org.futon.table.RowCursor;
+import org.futon.table.RowMatching;
+import org.futon.table.RowWriter;
+import org.futon.table.TableChanges;
+import org.futon.table.TableIndex;
+import org.futon.table.TableQuery;
+import org.futon.table.TableSnapshot;
+import org.futon.utils.FProperties;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * A table.
+ * <p>A table.</p>
+ * <p>The content of the table can be read cell by cell, or in a single platform
+ *    round trip using a {@link TableSnapshot}. The last snapshot taken serves
+ *    the calls to {@link #getCellValue(int, int)} for the cells it contains, until
+ *    the table is reloaded.
+ * </p>
+ * <p>Rows can be looked up by the value of a column using a {@link TableIndex},
+ *    built from a single bulk read. Indexes are discarded when the table is reloaded.
+ * </p>
+ * <p>Snapshots of the whole table can be filtered, sorted and aggregated in memory
+ *    using a {@link TableQuery}.
+ * </p>
+ * <p>After a reload, a snapshot of the whole table can be refreshed incrementally,
+ *    reading again only the rows that changed.
+ * </p>
+ * <p>Tables too large to be kept in memory, also paginated or infinitely scrolling
+ *    ones, can be visited by a {@link RowCursor}, and exported to a {@link RowWriter}
+ *    while they are read.
+ * </p>
+ * <p>Platform specific tables read from the platform by {@link #readRowCount()},
+ *    {@link #readColumnCount()} and {@link #readCellValue(int, int)}. The public getters
+ *    are final: they serve the cells from the last snapshot, and reload the table on
+ *    the platform first, if it was reloaded. Tables written for previous versions,
+ *    overriding {@code getRowCount}, {@code getColumnCount} and {@code getCellValue},
+ *    must rename them to the corresponding protected {@code read} methods.
+ * </p>
  *
  * @author Riccardo Cardin
  * @version 1.0
  * @since 1.0
  */
 public abstract class Table extends ClickableWidget implements Reloadable {
+    /**
+     * Last snapshot taken.
+     */
+    private volatile CachedSnapshot cached;
+
+    /**
+     * Ctor.
+     */
+    public Table() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Table(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Table(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
+
+    /**
+     * Returns the number of rows of the table. If the table was reloaded, it is
+     * reloaded on the platform first.
+     *
+     * @return The number of rows.
+     */
+    public final int getRowCount() {
+        refreshIfDirty();
+        return readRowCount();
+    }
 
     /**
-     * Returns the number of rows of the table.
+     * Returns the number of columns of the table. If the table was reloaded, it is
+     * reloaded on the platform first.
+     *
+     * @return The number of columns.
+     */
+    public final int getColumnCount() {
+        refreshIfDirty();
+        return readColumnCount();
+    }
+
+    /**
+     * Reads the number of rows of the table from the platform.
      *
      * @return The number of rows.
      */
-    public abstract int getRowCount();
+    protected abstract int readRowCount();
 
     /**
-     * Returns the number of columns of the table.
+     * Reads the number of columns of the table from the platform.
      *
      * @return The number of columns.
      */
-    public abstract int getColumnCount();
+    protected abstract int readColumnCount();
+
+    /**
+     * Returns the value of the cell at position {@code (row, col)}. If the cell is
+     * contained in the last snapshot taken, its value is read from memory. Otherwise,
+     * if the table was reloaded, it is reloaded on the platform before reading the cell.
+     *
+     * @param row Requested row
+     * @param col Requested column
+     * @return The value of the cell at position {@code (row, col)}.
+     *
+     * @see #snapshot()
+     */
+    public final String getCellValue(int row, int col) {
+        TableSnapshot snapshot = getSnapshot();
+        if (snapshot != null && snapshot.contains(row, col)) {
+            return snapshot.getCellValue(row, col);
+        }
+        refreshIfDirty();
+        return readCellValue(row, col);
+    }
 
     /**
-     * Returns the value of the cell at position {@code (row, col)}.
+     * Reads the value of the cell at position {@code (row, col)} from the platform. It
+     * replaces the {@code getCellValue} method implemented by the platform specific
+     * tables of previous versions.
      *
      * @param row Requested row
      * @param col Requested column
      * @return The value of the cell at position {@code (row, col)}.
      */
-    public abstract String getCellValue(int row, int col);
+    protected abstract String readCellValue(int row, int col);
+
+    /**
+     * Takes a snapshot of the whole table.
+     *
+     * @return The snapshot of the table.
+     *
+     * @throws ObjectNotFoundException If the table is not available.
+     *
+     * @see #snapshot(int, int, int, int)
+     */
+    public TableSnapshot snapshot() {
+        return snapshot(0, Integer.MAX_VALUE, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * <p>Takes a snapshot of a range of rows and columns of the table. The range is
+     *    truncated to the rows and the columns available.
+     * </p>
+     * <p>The cells are read in a single platform round trip, if the platform specific
+     *    table overrides {@link #readRows(Testable, int, int, int, int)}. The snapshot
+     *    becomes the one serving {@link #getCellValue(int, int)}.
+     * </p>
+     *
+     * @param fromRow First row of the range
+     * @param rowCount Number of rows of the range
+     * @param fromCol First column of the range
+     * @param colCount Number of columns of the range
+     * @return The snapshot of the range.
+     *
+     * @throws ObjectNotFoundException If the table is not available.
+     */
+    public TableSnapshot snapshot(final int fromRow, final int rowCount,
+                                  final int fromCol, final int colCount) {
+        int generation = getGeneration();
+        TableSnapshot snapshot = read(fromRow, rowCount, fromCol, colCount);
+        cached = new CachedSnapshot(snapshot, generation,
+                                    fromRow == 0 && rowCount == Integer.MAX_VALUE
+                                            && fromCol == 0 && colCount == Integer.MAX_VALUE,
+                                    null);
+        return snapshot;
+    }
+
+    /**
+     * <p>Refreshes the last snapshot of the whole table, usually after a reload. The
+     *    fingerprints of the rows are read from the platform and compared with the ones
+     *    of the snapshot: only the rows that were added or modified are read again. If
+     *    the platform can not compute the fingerprints, the whole table is read once
+     *    and compared with the snapshot.
+     * </p>
+     * <p>If the last snapshot does not contain the whole table, a new snapshot is
+     *    taken and all its rows are reported as added. If the number of columns
+     *    changed, the whole table is read again.
+     * </p>
+     *
+     * @return The changes of the table, together with the new snapshot.
+     *
+     * @throws ObjectNotFoundException If the table is not available.
+     *
+     * @see #readFingerprints(Testable)
+     */
+    public TableChanges refresh() {
+        final CachedSnapshot previous = cached;
+        if (previous == null || !previous.isWhole()) {
+            TableSnapshot snapshot = snapshot();
+            return new TableChanges(range(0, snapshot.getRowCount()), new int[0], new int[0],
+                                    snapshot);
+        }
+        int generation = getGeneration();
+        Refresh refresh = doQuery(testable -> refresh(testable, previous));
+        cached = new CachedSnapshot(refresh.changes.getSnapshot(), generation, true,
+                                    refresh.fingerprints);
+        return refresh.changes;
+    }
+
+    /**
+     * Refreshes a snapshot of the whole table.
+     *
+     * @param testable Platform specific object.
+     * @param previous The snapshot to refresh.
+     * @return The changes of the table and the fingerprints of its rows.
+     *
+     * @throws IllegalStateException If the platform returned fewer rows than the
+     *         fingerprints read, because the table changed in the meanwhile.
+     */
+    private Refresh refresh(Testable testable, CachedSnapshot previous) {
+        TableSnapshot before = previous.snapshot;
+        int columns = readColumnCount();
+        if (columns != before.getColumnCount()) {
+            TableSnapshot after = TableSnapshot.of(
+                    0, 0, columns, readRows(testable, 0, Integer.MAX_VALUE, 0, columns));
+            int common = Math.min(before.getRowCount(), after.getRowCount());
+            return new Refresh(new TableChanges(range(common, after.getRowCount()),
+                                                range(common, before.getRowCount()),
+                                                range(0, common),
+                                                after),
+                               fingerprints(after));
+        }
+        long[] fingerprints = readFingerprints(testable);
+        if (fingerprints == null) {
+            // No fingerprints from the platform: the whole table is read once
+            TableSnapshot after = TableSnapshot.of(
+                    0, 0, columns, readRows(testable, 0, Integer.MAX_VALUE, 0, columns));
+            fingerprints = fingerprints(after);
+            RowMatching matching = RowMatching.of(previous.fingerprints(), fingerprints);
+            return new Refresh(new TableChanges(matching.getAdded(), matching.getRemoved(),
+                                                matching.getModified(), after),
+                               fingerprints);
+        }
+        RowMatching matching = RowMatching.of(previous.fingerprints(), fingerprints);
+        // Reads the rows to materialise again, grouped in ranges of adjacent rows
+        String[][] fetched = new String[fingerprints.length][];
+        int row = 0;
+        while (row < fingerprints.length) {
+            if (matching.getSource(row) >= 0) {
+                row++;
+                continue;
+            }
+            int end = row;
+            while (end < fingerprints.length && matching.getSource(end) < 0) {
+                end++;
+            }
+            String[][] values = readRows(testable, row, end - row, 0, columns);
+            if (values.length < end - row) {
+                throw new IllegalStateException(
+                        "Read " + values.length + " rows from row " + row + " instead of "
+                        + (end - row) + ": the table changed while it was refreshed");
+            }
+            System.arraycopy(values, 0, fetched, row, end - row);
+            row = end;
+        }
+        TableSnapshot.Builder builder = new TableSnapshot.Builder(0, 0, columns);
+        for (int i = 0; i < fingerprints.length; i++) {
+            int source = matching.getSource(i);
+            builder.addRow(source >= 0 ? before.getRow(source) : fetched[i]);
+        }
+        return new Refresh(new TableChanges(matching.getAdded(), matching.getRemoved(),
+                                            matching.getModified(), builder.build()),
+                           fingerprints);
+    }
+
+    /**
+     * <p>Reads the fingerprints of all the rows of the table from the platform.</p>
+     * <p>Platform specific tables should override this method to compute the
+     *    fingerprints on the platform, with the algorithm of
+     *    {@link TableSnapshot#fingerprint(String[])} or using a key of the rows that
+     *    changes with their content, and to return only them. The default
+     *    implementation returns {@code null}: the table is then refreshed reading it
+     *    whole, in a single round trip.
+     * </p>
+     *
+     * @param testable Platform specific object.
+     * @return The fingerprints of the rows, by row, or {@code null} if the platform
+     *         can not compute them.
+     */
+    protected long[] readFingerprints(Testable testable) {
+        return null;
+    }
+
+    /**
+     * Returns the fingerprints of the rows of a snapshot.
+     *
+     * @param snapshot The snapshot.
+     * @return The fingerprints of the rows, by row.
+     */
+    private static long[] fingerprints(TableSnapshot snapshot) {
+        long[] fingerprints = new long[snapshot.getRowCount()];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = snapshot.fingerprint(i);
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Returns the ints in the range {@code [from, to)}.
+     *
+     * @param from First int of the range
+     * @param to Last int of the range, excluded
+     * @return The ints in the range
+     */
+    private static int[] range(int from, int to) {
+        int[] range = new int[Math.max(0, to - from)];
+        for (int i = 0; i < range.length; i++) {
+            range[i] = from + i;
+        }
+        return range;
+    }
+
+    /**
+     * Reads a range of rows and columns of the table into a new snapshot.
+     *
+     * @param fromRow First row of the range
+     * @param rowCount Number of rows of the range
+     * @param fromCol First column of the range
+     * @param colCount Number of columns of the range
+     * @return The snapshot of the range.
+     */
+    private TableSnapshot read(final int fromRow, final int rowCount,
+                               final int fromCol, final int colCount) {
+        String[][] rows = doQuery(
+                testable -> readRows(testable, fromRow, rowCount, fromCol, colCount));
+        int columns = 0;
+        for (String[] row : rows) {
+            columns = Math.max(columns, row.length);
+        }
+        return TableSnapshot.of(fromRow, fromCol, columns, rows);
+    }
+
+    /**
+     * <p>Returns the index of a column of the table. If the last snapshot taken contains
+     *    the whole table, the index is built from it; otherwise, a new snapshot of the
+     *    whole table is taken.
+     * </p>
+     * <p>The index is kept until the table is reloaded or a new snapshot is taken.</p>
+     *
+     * @param col The column to index.
+     * @return The index of the column.
+     *
+     * @throws ObjectNotFoundException If the table is not available.
+     */
+    public TableIndex index(int col) {
+        return index(new int[] {col})[0];
+    }
+
+    /**
+     * Returns the indexes of some columns of the table, building them from a single
+     * bulk read if needed.
+     *
+     * @param cols The columns to index.
+     * @return The indexes of the columns, in the same order.
+     *
+     * @throws ObjectNotFoundException If the table is not available.
+     *
+     * @see #index(int)
+     */
+    public TableIndex[] index(int... cols) {
+        CachedSnapshot current = whole();
+        TableIndex[] indexes = new TableIndex[cols.length];
+        for (int i = 0; i < cols.length; i++) {
+            indexes[i] = current.index(cols[i]);
+        }
+        return indexes;
+    }
+
+    /**
+     * Returns a query on the whole table. If the last snapshot taken contains the whole
+     * table, the query is evaluated on it; otherwise, a new snapshot of the whole table
+     * is taken.
+     *
+     * @return A query returning all the rows of the table.
+     *
+     * @throws ObjectNotFoundException If the table is not available.
+     */
+    public TableQuery query() {
+        return TableQuery.from(whole().snapshot);
+    }
+
+    /**
+     * Returns the last snapshot taken, if it contains the whole table and the table
+     * was not reloaded since then. Otherwise, a new snapshot of the whole table is taken.
+     *
+     * @return The snapshot of the whole table.
+     */
+    private CachedSnapshot whole() {
+        CachedSnapshot current = cached;
+        if (current == null || current.generation != getGeneration() || !current.isWhole()) {
+            snapshot();
+            current = cached;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the first row whose cell in column {@code col} has the given value, using
+     * the index of the column.
+     *
+     * @param col The column to look up.
+     * @param value The value to look up.
+     * @return The row of the table, or {@code -1} if no row contains the value.
+     *
+     * @throws ObjectNotFoundException If the table is not available.
+     *
+     * @see #index(int)
+     */
+    public int findRow(int col, String value) {
+        return index(col).findRow(value);
+    }
+
+    /**
+     * Returns a cursor on the rows of the table, fetching the default number of rows
+     * at once.
+     *
+     * @return A cursor on the rows of the table.
+     *
+     * @see #rows(int)
+     */
+    public RowCursor rows() {
+        return rows(FProperties.INSTANCE.getInt(FProperties.Property.TABLE_PAGE_SIZE));
+    }
+
+    /**
+     * <p>Returns a cursor on the rows of the table. The cursor fetches {@code pageSize}
+     *    rows at once, and keeps in memory only the last rows fetched.
+     * </p>
+     * <p>When the rows of the current page are over, the cursor calls #showNextPage
+     *    and then reloads the table on the platform, before reading the number of rows
+     *    of the next page.
+     * </p>
+     *
+     * @param pageSize Number of rows fetched at once.
+     * @return A cursor on the rows of the table.
+     */
+    public RowCursor rows(int pageSize) {
+        return new RowCursor(this::getRowCount,
+                             (fromRow, rowCount) -> read(fromRow, rowCount, 0, Integer.MAX_VALUE),
+                             this::moveToNextPage, pageSize, getPaging());
+    }
+
+    /**
+     * Exports the rows of the table to a {@code writer}, fetching the default number of
+     * rows at once. Every row is written as soon as it is fetched, so the memory used
+     * does not depend on the number of rows. The writer is not closed.
+     *
+     * @param writer The writer of the rows.
+     * @return The number of rows exported.
+     * @throws IOException If a row can not be written.
+     *
+     * @see #rows()
+     */
+    public long export(RowWriter writer) throws IOException {
+        RowCursor cursor = rows();
+        long count = 0L;
+        try {
+            while (cursor.hasNext()) {
+                Row row = cursor.next();
+                writer.write(row.getIndex(), row.getValues());
+                count++;
+            }
+        } finally {
+            cursor.close();
+        }
+        return count;
+    }
+
+    /**
+     * Returns how the table shows rows that do not fit in a single page. By default,
+     * all the rows are shown at once.
+     *
+     * @return The paging of the table.
+     */
+    protected Paging getPaging() {
+        return Paging.NONE;
+    }
+
+    /**
+     * Moves the table to its next page of rows, for example clicking the "next" button
+     * of a paginated table or scrolling an infinite one. Platform specific tables with
+     * a paging must override this method.
+     *
+     * @return {@code false} if there are no more pages.
+     */
+    protected boolean showNextPage() {
+        return false;
+    }
+
+    /**
+     * Shows the next page of rows and reloads the table on the platform, on behalf of
+     * a cursor.
+     *
+     * @return {@code false} if there are no more pages.
+     */
+    private boolean moveToNextPage() {
+        if (!showNextPage()) {
+            return false;
+        }
+        reload();
+        refreshIfDirty();
+        return true;
+    }
+
+    /**
+     * Returns the last snapshot taken, if the table was not reloaded since then.
+     *
+     * @return The last snapshot, or {@code null}.
+     */
+    public TableSnapshot getSnapshot() {
+        CachedSnapshot current = cached;
+        if (current == null || current.generation != getGeneration()) {
+            return null;
+        }
+        return current.snapshot;
+    }
+
+    /**
+     * <p>Reads a range of rows and columns from the platform, truncating it to the rows
+     *    and the columns available. Every row of the result has the same length.
+     * </p>
+     * <p>The default implementation reads the cells one by one. Platform specific tables
+     *    should override this method to read the whole range in a single round trip.
+     * </p>
+     *
+     * @param testable Platform specific object.
+     * @param fromRow First row of the range
+     * @param rowCount Number of rows of the range
+     * @param fromCol First column of the range
+     * @param colCount Number of columns of the range
+     * @return The values of the cells, by row.
+     */
+    protected String[][] readRows(Testable testable, int fromRow, int rowCount,
+                                  int fromCol, int colCount) {
+        int rows = Math.max(0, (int) Math.min((long) readRowCount() - fromRow, rowCount));
+        int cols = Math.max(0, (int) Math.min((long) readColumnCount() - fromCol, colCount));
+        String[][] values = new String[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                values[i][j] = readCellValue(fromRow + i, fromCol + j);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * A snapshot together with the generation of the table at the time in which
+     * it was taken, and with the indexes built on it.
+     */
+    private static final class CachedSnapshot {
+        /**
+         * The snapshot.
+         */
+        private final TableSnapshot snapshot;
+        /**
+         * Generation of the table.
+         */
+        private final int generation;
+        /**
+         * {@code true} if the snapshot contains the whole table.
+         */
+        private final boolean whole;
+        /**
+         * Fingerprints of the rows of the snapshot, if known.
+         */
+        private volatile long[] fingerprints;
+        /**
+         * Indexes built on the snapshot, by column.
+         */
+        private final ConcurrentMap<Integer, TableIndex> indexes =
+                new ConcurrentHashMap<Integer, TableIndex>();
+
+        /**
+         * Ctor.
+         *
+         * @param snapshot The snapshot
+         * @param generation Generation of the table
+         * @param whole {@code true} if the snapshot contains the whole table
+         * @param fingerprints Fingerprints of the rows of the snapshot, if known
+         */
+        private CachedSnapshot(TableSnapshot snapshot, int generation, boolean whole,
+                               long[] fingerprints) {
+            this.snapshot = snapshot;
+            this.generation = generation;
+            this.whole = whole;
+            this.fingerprints = fingerprints;
+        }
+
+        /**
+         * Returns the fingerprints of the rows of the snapshot, computing them from
+         * their content if needed.
+         *
+         * @return The fingerprints of the rows
+         */
+        private long[] fingerprints() {
+            long[] known = fingerprints;
+            if (known == null) {
+                known = new long[snapshot.getRowCount()];
+                for (int i = 0; i < known.length; i++) {
+                    known[i] = snapshot.fingerprint(snapshot.getFirstRow() + i);
+                }
+                fingerprints = known;
+            }
+            return known;
+        }
+
+        /**
+         * Returns {@code true} if the snapshot contains the whole table.
+         *
+         * @return {@code true} if the snapshot contains the whole table
+         */
+        private boolean isWhole() {
+            return whole;
+        }
+
+        /**
+         * Returns the index of a column, building it if needed.
+         *
+         * @param col The column to index
+         * @return The index of the column
+         */
+        private TableIndex index(int col) {
+            TableIndex index = indexes.get(col);
+            if (index == null) {
+                TableIndex built = TableIndex.build(snapshot, col);
+                index = indexes.putIfAbsent(col, built);
+                if (index == null) {
+                    index = built;
+                }
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Result of the refresh of a snapshot.
+     */
+    private static final class Refresh {
+        /**
+         * The changes of the table.
+         */
+        private final TableChanges changes;
+        /**
+         * Fingerprints of the rows of the new snapshot.
+         */
+        private final long[] fingerprints;
+
+        /**
+         * Ctor.
+         *
+         * @param changes The changes of the table
+         * @param fingerprints Fingerprints of the rows of the new snapshot
+         */
+        private Refresh(TableChanges changes, long[] fingerprints) {
+            this.changes = changes;
+            this.fingerprints = fingerprints;
+        }
+    }
 }
@@ -23,7 +23,8 @@
  */
 package org.futon.widgets;
 
-import org.futon.actions.Gettable;
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
 
 /**
  * An input text.
@@ -32,6 +33,31 @@ import org.futon.actions.Gettable;
  * @version 1.0
  * @since 1.0
  */
-public abstract class Text extends EditableWidget implements Gettable {
+public abstract class Text extends EditableWidget implements AsyncGettable {
+    /**
+     * Ctor.
+     */
+    public Text() {
+        super();
+    }
 
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public Text(Reloadable container) {
+        super(container);
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public Text(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 }
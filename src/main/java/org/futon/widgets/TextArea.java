@@ -23,6 +23,9 @@
  */
 package org.futon.widgets;
 
+import org.futon.actions.Reloadable;
+import org.futon.sync.SyncSettings;
+
 /**
  * A text area (multiline).
  *
@@ -31,5 +34,30 @@ package org.futon.widgets;
  * @since 1.0
  */
 public abstract class TextArea extends EditableWidget {
+    /**
+     * Ctor.
+     */
+    public TextArea() {
+        super();
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     */
+    public TextArea(Reloadable container) {
+        super(container);
+    }
 
+    /**
+     * Ctor.
+     *
+     * @param container The container of the widget.
+     * @param settings The synchronization settings of the widget, or {@code null} to
+     *                 inherit them from the container.
+     */
+    public TextArea(Reloadable container, SyncSettings settings) {
+        super(container, settings);
+    }
 }
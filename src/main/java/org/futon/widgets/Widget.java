@@ -25,36 +25,90 @@ package org.futon.widgets;
 
 import org.futon.Testable;
 import org.futon.actions.Reloadable;
+import org.futon.actions.Verifiable;
 import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.jfr.FlightRecording;
+import org.futon.metrics.MetricsRegistry;
+import org.futon.metrics.WidgetMetrics;
+import org.futon.sync.AdaptiveWaitPolicy;
+import org.futon.sync.AsyncExecutor;
+import org.futon.sync.ExecutionContext;
+import org.futon.sync.SyncListener;
+import org.futon.sync.SyncListeners;
+import org.futon.sync.SyncSettings;
+import org.futon.sync.SyncTarget;
+import org.futon.sync.Synchronizer;
+import org.futon.utils.BackoffStrategy;
 import org.futon.utils.FProperties;
 import org.futon.utils.Waiter;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 /**
- * Generic widget.
+ * <p>Generic widget.</p>
+ * <p>A widget is an immutable definition, that can be shared among threads. The state
+ *    of a single action lives in the {@link ExecutionContext} bound to the thread
+ *    executing it, that can also override the waiter and the container of the widget.
+ * </p>
  *
  * @author Riccardo Cardin
  * @version 1.0
  * @since 1.0
  */
-public abstract class Widget {
+public abstract class Widget implements Verifiable {
+
+    /**
+     * Default waiting policy, configured in the {@code futon.properties} file, together
+     * with the snapshot of the properties it was created from.
+     */
+    private static volatile DefaultWaiter defaultWaiter;
+
+    /**
+     * Adaptive policy learning the locate latency of every widget, if enabled in the
+     * {@code futon.properties} file.
+     */
+    private static final AdaptiveWaitPolicy ADAPTIVE_POLICY = AdaptiveWaitPolicy.fromProperties();
+
+    /**
+     * Registry of the metrics of the widgets, if enabled in the {@code futon.properties}
+     * file.
+     */
+    private static final MetricsRegistry METRICS = MetricsRegistry.fromProperties();
+
+    /**
+     * Testable object standing for the absence of a widget.
+     */
+    private static final Testable ABSENT = new Testable() {
+    };
+
+    /**
+     * Reloads a container on behalf of the synchronization.
+     *
+     * @see #requestReload(Reloadable)
+     */
+    private static final Consumer<Reloadable> RELOAD_REQUEST = Widget::requestReload;
 
     /**
-     * Default number of retries of synchronization on the widget.
+     * Chain of containers of a widget without containers.
      */
-    private static final int MAX_RETRIES =
-            Integer.valueOf(FProperties.INSTANCE.get(FProperties.Property.MAX_RETRIES));
+    private static final Reloadable[] NO_CONTAINERS = new Reloadable[0];
 
     /**
-     * Default range of container reloading.
+     * Listeners of an action not notified to anyone.
      */
-    private static final int RELOAD_RANGE =
-            Integer.valueOf(FProperties.INSTANCE.get(FProperties.Property.RELOAD_RANGE));
+    private static final SyncListener[] NO_LISTENERS = new SyncListener[0];
 
     /**
      * Ctor.
      */
     public Widget() {
-        // Empty body
+        this(null, (Waiter) null);
     }
 
     /**
@@ -63,66 +117,342 @@ public abstract class Widget {
      * @param reloadable A container widget.
      */
     public Widget(Reloadable reloadable) {
+        this(reloadable, (Waiter) null);
+    }
+
+    /**
+     * Construct a widget inside a container, using a specific waiting policy.
+     *
+     * @param reloadable A container widget.
+     * @param waiter The waiting policy between two synchronization attempts, or
+     *               {@code null} for the default one.
+     */
+    public Widget(Reloadable reloadable, Waiter waiter) {
+        this(reloadable, waiter, null);
+    }
+
+    /**
+     * Construct a widget inside a container, overriding the synchronization settings
+     * inherited from the container.
+     *
+     * @param reloadable A container widget.
+     * @param settings The synchronization settings of the widget and of the widgets
+     *                 inside it, or {@code null} to inherit them.
+     */
+    public Widget(Reloadable reloadable, SyncSettings settings) {
+        this(reloadable, null, settings);
+    }
+
+    /**
+     * Construct a widget inside a container, using a specific waiting policy and
+     * overriding the synchronization settings inherited from the container. The
+     * settings left unset are taken from the container, or from the global defaults
+     * if the widget has no container. The settings are resolved again only if the
+     * {@code futon.properties} file changes.
+     *
+     * @param reloadable A container widget.
+     * @param waiter The waiting policy between two synchronization attempts, or
+     *               {@code null} for the default one.
+     * @param settings The synchronization settings of the widget and of the widgets
+     *                 inside it, or {@code null} to inherit them.
+     */
+    public Widget(Reloadable reloadable, Waiter waiter, SyncSettings settings) {
         this.reloadable = reloadable;
+        this.containers = containers(reloadable);
+        this.waiter = waiter;
+        this.overrides = settings;
+        this.settings = resolveSettings(FProperties.INSTANCE.snapshot());
+        this.refreshed = new AtomicInteger(containerGeneration());
     }
 
-    // FIXME How the hell will I initialize this object?
-    private Waiter waiter;
+    /**
+     * Waiting policy between two synchronization attempts, or {@code null} for the
+     * default one.
+     */
+    private final Waiter waiter;
 
     /**
      * Container of the widget.
      */
-    private Reloadable reloadable;   // FIXME To initialize.
+    private final Reloadable reloadable;
+    /**
+     * Chain of the containers of the widget, from the innermost to the outermost one.
+     */
+    private final Reloadable[] containers;
+
+    /**
+     * Synchronization settings given to the widget, or {@code null} to inherit them.
+     */
+    private final SyncSettings overrides;
+
+    /**
+     * Synchronization settings of the widget, resolved at construction and every time
+     * the properties change.
+     */
+    private volatile ResolvedSettings settings;
+
+    /**
+     * Generation of the widget, incremented every time it is reloaded.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+    /**
+     * Sum of the generations of the widget and of its containers at the time of its
+     * last reload on the platform. The widget is stale while it is lower than the
+     * current sum, that is until it is reloaded after it or one of its containers was
+     * marked as stale.
+     */
+    private final AtomicInteger refreshed;
+    /**
+     * Time of the end of the last reload on the platform, in nanoseconds, or zero if
+     * the widget was never reloaded.
+     */
+    private volatile long lastRefresh;
+    /**
+     * Metrics of the widget, looked up at the first action.
+     */
+    private volatile WidgetMetrics metrics;
+    /**
+     * Identity of the widget, built at the first request.
+     */
+    private volatile String identity;
+    /**
+     * Listeners registered on the widget, notified of the actions on it and on the
+     * widgets inside it.
+     */
+    private final SyncListeners listeners = new SyncListeners();
+    /**
+     * Listeners of the actions on the widget, resolved at the last registration.
+     */
+    private volatile ResolvedListeners resolved;
+
+    /**
+     * Testable object found by the last locate, if caching is enabled.
+     */
+    private volatile CachedTestable cached;
+
+    /**
+     * Synchronization engine of the last action, reused while its inputs do not change.
+     */
+    private volatile CachedSynchronizer synchronizer;
 
     /**
      * <p>Do the operation needed on the widget synchronizing on it.</p>
-     * <p>The method is a template method, completed by #waitForTestable
+     * <p>The method is a template method, completed by #findTestable
      *    and #doOnTestable.
      * </p>
      *
      * @throws ObjectNotFoundException If there is no widget ready for syncronization.
      */
     protected final Testable doAction() {
-        return sync(new Function() {
+        return sync(new WidgetTarget() {
             @Override
-            public Testable apply() {
-                Testable testable = waitForTestable();
-                doOnTestable(testable);
-                return testable;
+            public void act(Testable testable) {
+                try {
+                    doOnTestable(testable);
+                } catch (RuntimeException e) {
+                    // The cached object could be the cause of the failure
+                    invalidateTestable();
+                    throw e;
+                }
             }
-        });
+        }, "doAction");
     }
 
     /**
-     * Retries to apply the {@code function} until the testable object is available and returns it.
-     * The function is applied for a max of #MAX_RETRIES times. Every time, the process wait for
-     * a little time, using the policy defined in the #waiter. Every #RELOAD_RANGE times, the
-     * #container of the object is reloaded.
+     * <p>Reads information from the widget synchronizing on it.</p>
+     * <p>The method is a template method, completed by #findTestable
+     *    and by the {@code query}.
+     * </p>
+     *
+     * @param query The query to apply to the testable object.
+     * @param <T> The type of the result of the query.
+     * @return The result of the query.
      *
-     * @param function The function to be applied repeatedly.
-     * @return The testable object resulting from the application of the {@code function}
+     * @throws ObjectNotFoundException If there is no widget ready for syncronization.
      */
-    protected final Testable sync(Function function) {
-        int index = 0;
-        boolean done = false;
-        Exception ex = null;
-        Testable testable = null;
-        while (!done && index < MAX_RETRIES) {
-            try {
-                testable = function.apply();
-                done = true;
-            } catch (Exception e) {
-                index++;
-                ex = e;
-                waiter.sleep();
-                if (index % RELOAD_RANGE == 0) {
-                    reloadable.reload();
-                }   // if (section != null && index % 10 == 0)
+    protected final <T> T doQuery(final Query<T> query) {
+        final List<T> result = new ArrayList<T>(1);
+        sync(new WidgetTarget() {
+            @Override
+            public void act(Testable testable) {
+                try {
+                    result.add(query.apply(testable));
+                } catch (RuntimeException e) {
+                    // The cached object could be the cause of the failure
+                    invalidateTestable();
+                    throw e;
+                }
             }
-        }   // while (!done && index < MAX_RETRIES)
-        if (!done)
-            throw new ObjectNotFoundException(ex);
-        return testable;
+        }, "doQuery");
+        return result.get(0);
+    }
+
+    /**
+     * Retries to locate the testable object of the {@code target} and to act on it, until
+     * the action succeeds. The whole action shares a single time budget, and it is tried
+     * for a max number of times, as defined in the #settings of the widget. Every time, the
+     * process wait for a little time, using the policy defined in the #waiter. Every
+     * reload range times, the #container of the object is reloaded: if reloading it does
+     * not help, the reload escalates to its parent, and so on. If the adaptive policy is
+     * enabled, the time budget and the first poll delay are learned from previous actions
+     * on widgets with the same identity.
+     *
+     * @param target The target of the action.
+     * @return The testable object on which the action was done.
+     *
+     * @throws ObjectNotFoundException If the time budget is over. The exception reports
+     *         which phase ran out of time.
+     *
+     * @see Synchronizer
+     */
+    protected final Testable sync(SyncTarget target) {
+        return sync(target, "sync");
+    }
+
+    /**
+     * Synchronizes an action, emitting its Flight Recorder events if enabled.
+     *
+     * @param target The target of the action.
+     * @param operation The method that started the synchronization.
+     * @return The testable object on which the action was done.
+     *
+     * @see #sync(SyncTarget)
+     */
+    private Testable sync(SyncTarget target, String operation) {
+        return sync(target, operation, 0L, ADAPTIVE_POLICY, true);
+    }
+
+    /**
+     * Synchronizes an action using a specific time budget.
+     *
+     * @param target The target of the action.
+     * @param operation The method that started the synchronization.
+     * @param timeout Time budget of the action, in milliseconds, or zero for the one of
+     *                the settings of the widget. A positive budget also bounds the one
+     *                given by the current {@link ExecutionContext}.
+     * @param policy Adaptive policy learning the locate latency (it can be {@code null}).
+     * @param observed {@code false} if the action must not be recorded into the metrics
+     *                 of the widget nor notified to its listeners.
+     * @return The testable object on which the action was done.
+     *
+     * @see #sync(SyncTarget)
+     */
+    private Testable sync(SyncTarget target, String operation, long timeout,
+                          AdaptiveWaitPolicy policy, boolean observed) {
+        ExecutionContext context = ExecutionContext.current();
+        Waiter currentWaiter = waiter != null ? waiter : defaultWaiter();
+        SyncSettings currentSettings = getSyncSettings();
+        Reloadable currentContainer = reloadable;
+        if (context != null) {
+            if (context.getWaiter() != null) {
+                currentWaiter = context.getWaiter();
+            }
+            if (context.getContainer() != null) {
+                currentContainer = context.getContainer();
+            }
+        }
+        Synchronizer synchronizer =
+                synchronizer(currentWaiter, currentContainer,
+                             timeout > 0 ? timeout : currentSettings.getTimeout(),
+                             currentSettings, policy, observed);
+        if (FlightRecording.isEnabled()) {
+            return FlightRecording.sync(synchronizer, target, context, timeout,
+                                        getClass().getName(), getLocator(), operation);
+        }
+        return synchronizer.run(target, context, timeout);
+    }
+
+    /**
+     * Returns the synchronization engine of an action, reusing the one of the previous
+     * action if its inputs did not change.
+     *
+     * @param currentWaiter Waiting policy between two attempts.
+     * @param container Innermost container to reload (it can be {@code null}).
+     * @param timeout Time budget of the action, in milliseconds.
+     * @param currentSettings Synchronization settings of the action.
+     * @param policy Adaptive policy learning the locate latency (it can be {@code null}).
+     * @param observed {@code false} if the action must not be recorded into the metrics
+     *                 of the widget nor notified to its listeners.
+     * @return The synchronization engine.
+     */
+    private Synchronizer synchronizer(Waiter currentWaiter, Reloadable container,
+                                      long timeout, SyncSettings currentSettings,
+                                      AdaptiveWaitPolicy policy, boolean observed) {
+        SyncListener[] currentListeners = observed ? syncListeners() : NO_LISTENERS;
+        WidgetMetrics currentMetrics = observed ? getMetrics() : null;
+        CachedSynchronizer current = synchronizer;
+        if (current == null
+                || current.waiter != currentWaiter
+                || current.container != container
+                || current.timeout != timeout
+                || current.settings != currentSettings
+                || current.policy != policy
+                || current.listeners != currentListeners
+                || current.metrics != currentMetrics) {
+            Reloadable[] chain = container == reloadable ? containers : containers(container);
+            current = new CachedSynchronizer(
+                    Synchronizer.builder(currentSettings)
+                            .waiter(currentWaiter)
+                            .timeout(timeout)
+                            .containers(chain, RELOAD_REQUEST)
+                            .policy(policy)
+                            .identity(getIdentity())
+                            .metrics(currentMetrics)
+                            .listeners(currentListeners)
+                            .build(),
+                    currentWaiter, container, timeout, currentSettings, policy,
+                    currentListeners, currentMetrics);
+            synchronizer = current;
+        }
+        return current.synchronizer;
+    }
+
+    /**
+     * <p>Executes an {@code action} on the widget asynchronously, using the
+     *    {@link AsyncExecutor}. The action is executed inside a new
+     *    {@link ExecutionContext}, so every synchronized action it does uses the
+     *    given time budget.
+     * </p>
+     * <p>Cancelling the returned future cancels the context, stopping the retry loop
+     *    of the action.
+     * </p>
+     *
+     * @param action The action to execute.
+     * @param timeout Time budget of the action, in milliseconds, or zero for the
+     *                default one.
+     * @param <T> The type of the result of the action.
+     * @return The future result of the action.
+     */
+    protected final <T> CompletableFuture<T> async(Supplier<T> action, long timeout) {
+        return ExecutionContext.submit(action, timeout, AsyncExecutor.get());
+    }
+
+    /**
+     * Returns a description of the locator used to find the widget on the platform.
+     * Platform specific widgets should override this method: the locator is part
+     * of the identity of the widget.
+     *
+     * @return The locator of the widget, or {@code null} if unknown.
+     */
+    public String getLocator() {
+        return null;
+    }
+
+    /**
+     * Returns the identity of the widget, made of its class and its locator. The
+     * identity is built once, so the locator must not change after the first action.
+     *
+     * @return The identity of the widget.
+     */
+    public final String getIdentity() {
+        String current = identity;
+        if (current == null) {
+            String locator = getLocator();
+            current = locator == null
+                    ? getClass().getName() : getClass().getName() + "[" + locator + "]";
+            identity = current;
+        }
+        return current;
     }
 
     /**
@@ -134,21 +464,472 @@ public abstract class Widget {
      * @return A testable object.
      */
     protected final Testable waitForTestable() {
-        return sync(new Function() {
+        return sync(new WidgetTarget() {
             @Override
-            public Testable apply() {
-                return findTestable();
+            public void act(Testable testable) {
+                // Nothing to do
+            }
+        }, "waitForTestable");
+    }
+
+    /**
+     * Checks if the widget exists, waiting for it at most the time budget of the checks
+     * of existence defined in the #settings of the widget. If the current
+     * {@link ExecutionContext} gives a shorter time budget, that one is used.
+     *
+     * @return {@code true} if the widget exists.
+     */
+    @Override
+    public boolean exists() {
+        try {
+            sync(new WidgetTarget() {
+                @Override
+                public void act(Testable testable) {
+                    // Nothing to do
+                }
+            }, "exists", getSyncSettings().getExistsTimeout(), ADAPTIVE_POLICY, true);
+            return true;
+        } catch (ObjectNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the widget exists now, calling #tryFindTestable once, without waiting
+     * nor retrying. The cached testable object, if any, is not trusted.
+     *
+     * @return {@code true} if the widget exists.
+     */
+    @Override
+    public boolean isPresent() {
+        refreshContainers();
+        return tryFindTestable() != null;
+    }
+
+    /**
+     * Waits until the widget does not exist anymore, at most the time budget of an
+     * action. The time the widget takes to disappear is not the latency of a locate:
+     * it is not learned by the adaptive policy, nor recorded into the metrics of the
+     * widget, and the wait is not notified to its listeners.
+     *
+     * @return {@code true} if the widget does not exist.
+     */
+    @Override
+    public boolean waitUntilAbsent() {
+        try {
+            sync(new SyncTarget() {
+                @Override
+                public Testable locate() {
+                    if (locateTestable() == null) {
+                        return ABSENT;
+                    }
+                    // Still present: the next locate must not reuse the cached object
+                    invalidateTestable();
+                    return null;
+                }
+
+                @Override
+                public void act(Testable testable) {
+                    // Nothing to do
+                }
+            }, "waitUntilAbsent", 0L, null, false);
+            return true;
+        } catch (ObjectNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * <p>Locates the testable object. If caching is enabled, the object found by the
+     *    previous locate is reused, until the container of the widget is reloaded or
+     *    the object is detected as stale by #isStale.
+     * </p>
+     *
+     * @return A testable object, or {@code null} if not found.
+     */
+    private Testable locateTestable() {
+        Testable testable = cachedTestable();
+        return testable != null ? testable : findAndCacheTestable();
+    }
+
+    /**
+     * Returns the testable object found by the previous locate, if caching is enabled
+     * and the object can still be used. The stale containers are reloaded first.
+     *
+     * @return The cached testable object, or {@code null} if none can be used.
+     */
+    private Testable cachedTestable() {
+        refreshContainers();
+        if (!isCacheable()) {
+            return null;
+        }
+        CachedTestable current = cached;
+        if (current != null
+                && current.generation == containerGeneration()
+                && !isStale(current.testable)) {
+            return current.testable;
+        }
+        return null;
+    }
+
+    /**
+     * Locates the testable object on the platform, caching it if caching is enabled.
+     *
+     * @return A testable object, or {@code null} if not found.
+     */
+    private Testable findAndCacheTestable() {
+        int containerGeneration = containerGeneration();
+        Testable testable = tryFindTestable();
+        if (testable != null && isCacheable()) {
+            cached = new CachedTestable(testable, containerGeneration);
+        }
+        return testable;
+    }
+
+    /**
+     * Reloads on the platform the stale containers of the widget, and the widget
+     * itself, starting from the outermost one.
+     */
+    private void refreshContainers() {
+        int stamp = 0;
+        for (int i = containers.length - 1; i >= 0; i--) {
+            Reloadable container = containers[i];
+            if (container instanceof Widget) {
+                Widget widget = (Widget) container;
+                stamp += widget.getGeneration();
+                widget.refreshIfStale(stamp);
+            }
+        }
+        refreshIfStale(stamp + getGeneration());
+    }
+
+    /**
+     * Reloads on the platform the widget and its containers, if they were marked as
+     * stale. Widgets call this method before reading from the platform outside of a
+     * synchronized action.
+     *
+     * @see #reload()
+     */
+    protected final void refreshIfDirty() {
+        refreshContainers();
+    }
+
+    /**
+     * Reloads the widget on the platform if it is stale. If many threads access the
+     * widget at the same time, only one of them reloads it.
+     *
+     * @param current Sum of the generations of the widget and of its containers.
+     */
+    private void refreshIfStale(int current) {
+        int done = refreshed.get();
+        if (done < current && refreshed.compareAndSet(done, current)) {
+            try {
+                FlightRecording.reload(this::doReload, getClass().getName(), getLocator(),
+                                       "PLATFORM");
+                lastRefresh = System.nanoTime();
+                if (METRICS != null && this instanceof Reloadable) {
+                    METRICS.container(getIdentity()).refresh();
+                }
+            } catch (RuntimeException e) {
+                refreshed.compareAndSet(current, done);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reloads a {@code container} on behalf of the synchronization. Sibling widgets
+     * waiting at the same time share the reloads of a container that is a widget: the
+     * request is dropped if the container is already stale, or if it was reloaded on
+     * the platform within the {@code org.futon.widget.reload.window}.
+     *
+     * @param container The container
+     */
+    private static void requestReload(Reloadable container) {
+        if (METRICS != null) {
+            METRICS.container(container instanceof Widget
+                                      ? ((Widget) container).getIdentity()
+                                      : container.getClass().getName()).reload();
+        }
+        if (container instanceof Widget && ((Widget) container).isReloading()) {
+            return;
+        }
+        FlightRecording.reload(container, container.getClass().getName(),
+                               container instanceof Widget
+                                       ? ((Widget) container).getLocator() : null,
+                               "REQUEST");
+    }
+
+    /**
+     * Returns {@code true} if a reload of the widget is pending, or if the widget was
+     * reloaded on the platform within the {@code org.futon.widget.reload.window}.
+     *
+     * @return {@code true} if a new reload of the widget would be redundant.
+     */
+    private boolean isReloading() {
+        if (isDirty()) {
+            return true;
+        }
+        long last = lastRefresh;
+        return last != 0L && System.nanoTime() - last < TimeUnit.MILLISECONDS.toNanos(
+                FProperties.INSTANCE.getLong(FProperties.Property.RELOAD_WINDOW));
+    }
+
+    /**
+     * Returns the chain of the containers starting from {@code container}, from the
+     * innermost to the outermost one.
+     *
+     * @param container The innermost container (it can be {@code null})
+     * @return The chain of the containers.
+     */
+    private static Reloadable[] containers(Reloadable container) {
+        if (container == null) {
+            return NO_CONTAINERS;
+        }
+        Reloadable[] outer = container instanceof Widget
+                ? ((Widget) container).containers : NO_CONTAINERS;
+        Reloadable[] chain = new Reloadable[outer.length + 1];
+        chain[0] = container;
+        System.arraycopy(outer, 0, chain, 1, outer.length);
+        return chain;
+    }
+
+    /**
+     * Returns the sum of the generations of the containers of the widget. Since
+     * generations only grow, the sum changes every time a container is reloaded.
+     *
+     * @return The generation of the containers of the widget.
+     */
+    private int containerGeneration() {
+        int sum = 0;
+        for (Reloadable container : containers) {
+            if (container instanceof Widget) {
+                sum += ((Widget) container).getGeneration();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Discards the cached testable object, if any.
+     */
+    protected final void invalidateTestable() {
+        cached = null;
+    }
+
+    /**
+     * Returns {@code true} if the testable object found by #findTestable can be cached
+     * and reused by later actions. By default, the value of the
+     * {@code org.futon.widget.cache} property is returned.
+     *
+     * @return {@code true} if the testable object can be cached.
+     */
+    protected boolean isCacheable() {
+        return FProperties.INSTANCE.getBoolean(FProperties.Property.CACHE_TESTABLE);
+    }
+
+    /**
+     * Cheaply checks if a cached testable object is no more usable, for example because
+     * it was detached from the page. Platform specific widgets should override this
+     * method when caching is enabled. By default, no object is stale.
+     *
+     * @param testable A cached testable object.
+     * @return {@code true} if the testable object is stale.
+     */
+    protected boolean isStale(Testable testable) {
+        return false;
+    }
+
+    /**
+     * Returns the generation of the widget, that is the number of times it was reloaded.
+     *
+     * @return The generation of the widget.
+     */
+    public final int getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * <p>Marks the widget and the widgets inside it as stale, incrementing its generation
+     *    and invalidating the testable objects cached by it and by its widgets. The
+     *    widget is reloaded on the platform lazily, by #doReload, the next time it or a
+     *    widget inside it is accessed. Containers implementing {@link Reloadable} inherit
+     *    this method; on any other widget, the next action locates it again.
+     * </p>
+     * <p>Containers written for previous versions reloaded themselves on the platform
+     *    in this method: they should move that code into #doReload. Widgets overriding
+     *    this method must call it, or they will never be reloaded lazily.
+     * </p>
+     *
+     * @see #doReload()
+     */
+    public void reload() {
+        generation.incrementAndGet();
+        invalidateTestable();
+    }
+
+    /**
+     * Returns {@code true} if the widget or one of its containers was marked as stale
+     * and the widget was not reloaded on the platform yet.
+     *
+     * @return {@code true} if the widget is stale.
+     */
+    public final boolean isDirty() {
+        return refreshed.get() < containerGeneration() + generation.get();
+    }
+
+    /**
+     * Returns the metrics of the widget, shared by the widgets with the same identity.
+     *
+     * @return The metrics of the widget, or {@code null} if metrics are disabled.
+     */
+    public final WidgetMetrics getMetrics() {
+        WidgetMetrics current = metrics;
+        if (current == null && METRICS != null) {
+            current = METRICS.widget(getIdentity());
+            metrics = current;
+        }
+        return current;
+    }
+
+    /**
+     * Registers a listener of the synchronization of the widget and, if the widget is a
+     * container, of the widgets inside it.
+     *
+     * @param listener The listener.
+     *
+     * @see SyncListeners#global()
+     */
+    public final void addSyncListener(SyncListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered on the widget.
+     *
+     * @param listener The listener.
+     */
+    public final void removeSyncListener(SyncListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the listeners of the actions on the widget: the global ones, then the ones
+     * of the outermost container, down to the ones of the widget. The listeners are
+     * resolved again only if some registration changed.
+     *
+     * @return The listeners of the actions on the widget.
+     */
+    private SyncListener[] syncListeners() {
+        long version = SyncListeners.version();
+        ResolvedListeners current = resolved;
+        if (current == null || current.version != version) {
+            SyncListener[] all = SyncListeners.global().appendTo(new SyncListener[0]);
+            for (int i = containers.length - 1; i >= 0; i--) {
+                Reloadable container = containers[i];
+                if (container instanceof Widget) {
+                    all = ((Widget) container).listeners.appendTo(all);
+                }
             }
-        });
+            current = new ResolvedListeners(listeners.appendTo(all), version);
+            resolved = current;
+        }
+        return current.listeners;
+    }
+
+    /**
+     * Returns the synchronization settings of the widget, resolved at construction. If
+     * the properties changed since then, the settings are resolved again.
+     *
+     * @return The synchronization settings.
+     */
+    public final SyncSettings getSyncSettings() {
+        FProperties.Snapshot snapshot = FProperties.INSTANCE.snapshot();
+        ResolvedSettings current = settings;
+        if (current.snapshot != snapshot) {
+            current = resolveSettings(snapshot);
+            settings = current;
+        }
+        return current.settings;
+    }
+
+    /**
+     * Resolves the synchronization settings of the widget against the ones of its
+     * container, or against the global defaults.
+     *
+     * @param snapshot The current properties.
+     * @return The resolved settings.
+     */
+    private ResolvedSettings resolveSettings(FProperties.Snapshot snapshot) {
+        SyncSettings parent = reloadable instanceof Widget
+                ? ((Widget) reloadable).getSyncSettings() : SyncSettings.from(snapshot);
+        return new ResolvedSettings(overrides != null ? overrides.inherit(parent) : parent,
+                                    snapshot);
+    }
+
+    /**
+     * Returns the default waiting policy, created again if the properties changed.
+     *
+     * @return The default waiting policy.
+     */
+    private static Waiter defaultWaiter() {
+        FProperties.Snapshot snapshot = FProperties.INSTANCE.snapshot();
+        DefaultWaiter current = defaultWaiter;
+        if (current == null || current.snapshot != snapshot) {
+            current = new DefaultWaiter(BackoffStrategy.fromProperties(snapshot), snapshot);
+            defaultWaiter = current;
+        }
+        return current.waiter;
+    }
+
+    /**
+     * Returns the container of the widget.
+     *
+     * @return The container of the widget, or {@code null} if the widget has none.
+     */
+    public final Reloadable getContainer() {
+        return reloadable;
+    }
+
+    /**
+     * Reloads the widget on the platform, acquiring possible page's changes. Containers
+     * override this method, that is called lazily after they were marked as stale by
+     * #reload. By default, nothing is done.
+     */
+    protected void doReload() {
+        // Nothing to reload
     }
 
     /**
      * Find the platform specific object associated to the widget.
      *
      * @return A platform specific object.
+     *
+     * @throws ObjectNotFoundException If the object is not available.
      */
     protected abstract Testable findTestable();
 
+    /**
+     * <p>Find the platform specific object associated to the widget, returning
+     *    {@code null} if it is not available yet. The synchronization calls this method
+     *    at every attempt.
+     * </p>
+     * <p>By default, #findTestable is called, translating its
+     *    {@link ObjectNotFoundException} into {@code null}. Platform specific widgets
+     *    should override this method to check the presence of the object without
+     *    throwing any exception.
+     * </p>
+     *
+     * @return A platform specific object, or {@code null} if not found.
+     */
+    protected Testable tryFindTestable() {
+        try {
+            return findTestable();
+        } catch (ObjectNotFoundException e) {
+            return null;
+        }
+    }
+
     /**
      * Do the operation associated to the widget on the platform specific object.
      *
@@ -157,16 +938,209 @@ public abstract class Widget {
     protected abstract void doOnTestable(Testable testable);
 
     /**
-     * A function to be done in a synchronous that returns a testable object.
+     * Target of an action on the widget, locating its testable object as
+     * #locateTestable does and telling whether the object was cached.
+     */
+    private abstract class WidgetTarget implements SyncTarget {
+        /**
+         * {@code true} if the last locate reused the cached testable object.
+         */
+        private boolean hit;
+
+        @Override
+        public Testable locate() {
+            Testable testable = cachedTestable();
+            hit = testable != null;
+            return hit ? testable : findAndCacheTestable();
+        }
+
+        @Override
+        public boolean isCached() {
+            return hit;
+        }
+    }
+
+    /**
+     * A testable object together with the generation of the containers at the time
+     * in which it was found.
+     */
+    private static final class CachedTestable {
+        /**
+         * The testable object.
+         */
+        private final Testable testable;
+        /**
+         * Generation of the containers.
+         */
+        private final int generation;
+
+        /**
+         * Ctor.
+         *
+         * @param testable The testable object
+         * @param generation Generation of the containers
+         */
+        private CachedTestable(Testable testable, int generation) {
+            this.testable = testable;
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * The synchronization settings of a widget, together with the properties they were
+     * resolved from.
+     */
+    private static final class ResolvedSettings {
+        /**
+         * The settings.
+         */
+        private final SyncSettings settings;
+        /**
+         * The properties.
+         */
+        private final FProperties.Snapshot snapshot;
+
+        /**
+         * Ctor.
+         *
+         * @param settings The settings
+         * @param snapshot The properties
+         */
+        private ResolvedSettings(SyncSettings settings, FProperties.Snapshot snapshot) {
+            this.settings = settings;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * The default waiting policy, together with the properties it was created from.
+     */
+    private static final class DefaultWaiter {
+        /**
+         * The waiting policy.
+         */
+        private final Waiter waiter;
+        /**
+         * The properties.
+         */
+        private final FProperties.Snapshot snapshot;
+
+        /**
+         * Ctor.
+         *
+         * @param waiter The waiting policy
+         * @param snapshot The properties
+         */
+        private DefaultWaiter(Waiter waiter, FProperties.Snapshot snapshot) {
+            this.waiter = waiter;
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * The listeners of the actions on a widget, together with the version of the
+     * registrations at the time in which they were resolved.
+     */
+    private static final class ResolvedListeners {
+        /**
+         * The listeners.
+         */
+        private final SyncListener[] listeners;
+        /**
+         * Version of the registrations.
+         */
+        private final long version;
+
+        /**
+         * Ctor.
+         *
+         * @param listeners The listeners
+         * @param version Version of the registrations
+         */
+        private ResolvedListeners(SyncListener[] listeners, long version) {
+            this.listeners = listeners;
+            this.version = version;
+        }
+    }
+
+    /**
+     * A synchronization engine, together with the inputs it was created from.
+     */
+    private static final class CachedSynchronizer {
+        /**
+         * The synchronization engine.
+         */
+        private final Synchronizer synchronizer;
+        /**
+         * Waiting policy between two attempts.
+         */
+        private final Waiter waiter;
+        /**
+         * Innermost container to reload.
+         */
+        private final Reloadable container;
+        /**
+         * Time budget of an action, in milliseconds.
+         */
+        private final long timeout;
+        /**
+         * Synchronization settings.
+         */
+        private final SyncSettings settings;
+        /**
+         * Adaptive policy learning the locate latency.
+         */
+        private final AdaptiveWaitPolicy policy;
+        /**
+         * Listeners of the actions.
+         */
+        private final SyncListener[] listeners;
+        /**
+         * Metrics of the widget.
+         */
+        private final WidgetMetrics metrics;
+
+        /**
+         * Ctor.
+         *
+         * @param synchronizer The synchronization engine
+         * @param waiter Waiting policy between two attempts
+         * @param container Innermost container to reload
+         * @param timeout Time budget of an action, in milliseconds
+         * @param settings Synchronization settings
+         * @param policy Adaptive policy learning the locate latency
+         * @param listeners Listeners of the actions
+         * @param metrics Metrics of the widget
+         */
+        private CachedSynchronizer(Synchronizer synchronizer, Waiter waiter,
+                                   Reloadable container, long timeout, SyncSettings settings,
+                                   AdaptiveWaitPolicy policy, SyncListener[] listeners,
+                                   WidgetMetrics metrics) {
+            this.synchronizer = synchronizer;
+            this.waiter = waiter;
+            this.container = container;
+            this.timeout = timeout;
+            this.settings = settings;
+            this.policy = policy;
+            this.listeners = listeners;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * A query on a testable object, done in a synchronous way.
+     *
+     * @param <T> The type of the result of the query.
      *
-     * @see #sync(org.futon.widgets.Widget.Function)
+     * @see #doQuery(org.futon.widgets.Widget.Query)
      */
-    private interface Function {
+    protected interface Query<T> {
         /**
-         * Execute the function to retrieve a testable object.
+         * Reads information from the testable object.
          *
-         * @return A testable object.
+         * @param testable Platform specific object.
+         * @return The information read.
          */
-        public Testable apply();
+        public T apply(Testable testable);
     }
 }
@@ -0,0 +1,227 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.batch;
+
+import org.futon.Testable;
+import org.futon.widgets.ClickableWidget;
+import org.futon.widgets.EditableWidget;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the order in which a {@link Batch} executes its actions.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class BatchTest {
+
+    /**
+     * Actions executed, in order, by the platform and by the widgets.
+     */
+    private final List<String> log = new ArrayList<String>();
+
+    @Test
+    public void actionsFailedInsideThePipelineAreRetriedBeforeTheFollowingOnes() {
+        FakePlatform platform = new FakePlatform("b");
+        BatchResult result = new Batch(platform)
+                .setValue(new Field("a"), "1")
+                .setValue(new Field("b"), "2")
+                .setValue(new Field("c"), "3")
+                .flush();
+        assertEquals(Arrays.asList("pipeline a=1", "b=2", "pipeline c=3"), log);
+        assertTrue(result.isSuccessful());
+        assertEquals(2, platform.calls);
+        List<FieldResult> results = result.getResults();
+        assertTrue(results.get(0).isPipelined());
+        assertFalse(results.get(1).isPipelined());
+        assertTrue(results.get(2).isPipelined());
+    }
+
+    @Test
+    public void unsupportedActionsAreExecutedBetweenTheRunsAroundThem() {
+        FakePlatform platform = new FakePlatform();
+        new Batch(platform)
+                .setValue(new Field("a"), "1")
+                .click(new Button("ok"))
+                .setValue(new Field("b"), "2")
+                .flush();
+        assertEquals(Arrays.asList("pipeline a=1", "click ok", "pipeline b=2"), log);
+        assertEquals(2, platform.calls);
+    }
+
+    @Test
+    public void failedPipelineExecutesEveryActionOfTheRunInOrder() {
+        FakePlatform platform = new FakePlatform();
+        platform.broken = true;
+        BatchResult result = new Batch(platform)
+                .setValue(new Field("a"), "1")
+                .setValue(new Field("b"), "2")
+                .flush();
+        assertEquals(Arrays.asList("a=1", "b=2"), log);
+        assertTrue(result.isSuccessful());
+        assertEquals(1, platform.calls);
+    }
+
+    @Test
+    public void batchWithoutPlatformExecutesTheActionsInQueueOrder() {
+        new Batch()
+                .click(new Button("ok"))
+                .setValue(new Field("a"), "1")
+                .flush();
+        assertEquals(Arrays.asList("click ok", "a=1"), log);
+    }
+
+    /**
+     * A platform executing the value settings in a pipeline, and failing the ones on the
+     * given fields. The execution stops at the first failure.
+     */
+    private final class FakePlatform implements PipelinedPlatform {
+        /**
+         * Fields whose settings fail inside the pipeline.
+         */
+        private final Set<String> failing;
+        /**
+         * {@code true} if every pipeline fails as a whole.
+         */
+        private boolean broken;
+        /**
+         * Number of pipelines executed.
+         */
+        private int calls;
+
+        /**
+         * Ctor.
+         *
+         * @param failing Fields whose settings fail inside the pipeline
+         */
+        private FakePlatform(String... failing) {
+            this.failing = new HashSet<String>(Arrays.asList(failing));
+        }
+
+        @Override
+        public boolean supports(BatchOperation operation) {
+            return operation.getType() == BatchOperation.Type.SET_VALUE;
+        }
+
+        @Override
+        public RuntimeException[] execute(List<BatchOperation> operations) {
+            calls++;
+            if (broken) {
+                throw new IllegalStateException("Broken pipeline");
+            }
+            RuntimeException[] failures = new RuntimeException[operations.size()];
+            for (int i = 0; i < operations.size(); i++) {
+                BatchOperation operation = operations.get(i);
+                String name = operation.getWidget().getLocator();
+                if (failing.remove(name)) {
+                    failures[i] = new IllegalStateException(name + " not ready");
+                    break;
+                }
+                log.add("pipeline " + name + "=" + operation.getValue());
+            }
+            return failures;
+        }
+    }
+
+    /**
+     * A field logging the values set on it.
+     */
+    private final class Field extends EditableWidget {
+        /**
+         * Name of the field.
+         */
+        private final String name;
+
+        /**
+         * Ctor.
+         *
+         * @param name Name of the field
+         */
+        private Field(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getLocator() {
+            return name;
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            log.add(name + "=" + getValueToSet());
+        }
+    }
+
+    /**
+     * A button logging the clicks on it.
+     */
+    private final class Button extends ClickableWidget {
+        /**
+         * Name of the button.
+         */
+        private final String name;
+
+        /**
+         * Ctor.
+         *
+         * @param name Name of the button
+         */
+        private Button(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getLocator() {
+            return name;
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            log.add("click " + name);
+        }
+    }
+}
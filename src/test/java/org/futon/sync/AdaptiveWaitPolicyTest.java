@@ -0,0 +1,113 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the persistence of the model of {@link AdaptiveWaitPolicy}. The model keeps
+ * only the buckets of the histograms, so latencies equal to the upper bound of their
+ * bucket are used, to compare the estimates exactly.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class AdaptiveWaitPolicyTest {
+
+    @Test
+    public void savedModelIsLoadedWithTheSameEstimates() throws IOException {
+        AdaptiveWaitPolicy saved = new AdaptiveWaitPolicy(5, 2.0, 10L);
+        // Upper bounds of the buckets are stored exactly by the model
+        for (int i = 1; i <= 20; i++) {
+            saved.record("org.futon.Text[name]", LatencyHistogram.upperBound(16 + i));
+        }
+        saved.record("org.futon.Button[ok]", 30L);
+        Path file = Files.createTempFile("futon", ".model");
+        try {
+            saved.save(file.toFile());
+            AdaptiveWaitPolicy loaded = new AdaptiveWaitPolicy(5, 2.0, 10L);
+            loaded.load(file.toFile());
+            assertEquals(saved.budget("org.futon.Text[name]", 100000L),
+                         loaded.budget("org.futon.Text[name]", 100000L));
+            assertEquals(saved.firstPollDelay("org.futon.Text[name]", 1L),
+                         loaded.firstPollDelay("org.futon.Text[name]", 1L));
+            // Too few samples: the defaults are used, before and after the round trip
+            assertEquals(100000L, loaded.budget("org.futon.Button[ok]", 100000L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void loadedSamplesAddToTheCurrentOnes() throws IOException {
+        AdaptiveWaitPolicy saved = new AdaptiveWaitPolicy(1, 2.0, 10L);
+        saved.record("widget", 47L);
+        saved.record("widget", 47L);
+        Path file = Files.createTempFile("futon", ".model");
+        try {
+            saved.save(file.toFile());
+            AdaptiveWaitPolicy current = new AdaptiveWaitPolicy(4, 2.0, 10L);
+            current.record("widget", 47L);
+            current.record("widget", 47L);
+            assertEquals(100000L, current.budget("widget", 100000L));
+            current.load(file.toFile());
+            assertEquals(saved.budget("widget", 100000L), current.budget("widget", 100000L));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void corruptedLinesAndBucketsAreSkipped() throws IOException {
+        AdaptiveWaitPolicy expected = new AdaptiveWaitPolicy(1, 2.0, 10L);
+        expected.record("widget", 47L);
+        File saved = File.createTempFile("futon", ".model");
+        Path file = Files.createTempFile("futon", ".model");
+        try {
+            expected.save(saved);
+            String line = new String(Files.readAllBytes(saved.toPath()),
+                                     StandardCharsets.UTF_8).trim();
+            Files.write(file, Arrays.asList("garbage", "\tno key", "other\tx:1,-1:3,9999:2",
+                                            line + ",abc,7:"),
+                        StandardCharsets.UTF_8);
+            AdaptiveWaitPolicy loaded = new AdaptiveWaitPolicy(1, 2.0, 10L);
+            loaded.load(file.toFile());
+            assertEquals(expected.budget("widget", 100000L), loaded.budget("widget", 100000L));
+            assertEquals(100000L, loaded.budget("other", 100000L));
+        } finally {
+            Files.delete(file);
+            Files.delete(saved.toPath());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.Testable;
+import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.simulation.SimulatedButton;
+import org.futon.simulation.SimulatedPlatform;
+import org.futon.widgets.EditableWidget;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of scripts sharing the same widgets, run at the same time by a
+ * {@link ScriptRunner}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class ScriptRunnerTest {
+
+    @Test(timeout = 10000)
+    public void scriptsSharingAWidgetSetTheirOwnValues() throws Exception {
+        final RecordingField field = new RecordingField();
+        Set<String> expected = new HashSet<String>();
+        List<CompletableFuture<Void>> scripts = new ArrayList<CompletableFuture<Void>>();
+        try (ScriptRunner runner = new ScriptRunner()) {
+            for (int i = 0; i < 200; i++) {
+                final String value = "value" + i;
+                expected.add(value);
+                scripts.add(runner.submit(() -> field.setValue(value)));
+            }
+            for (CompletableFuture<Void> script : scripts) {
+                script.get();
+            }
+        }
+        assertEquals(expected, new HashSet<String>(field.written));
+        assertEquals(200, field.written.size());
+    }
+
+    @Test(timeout = 10000)
+    public void scriptsSharingWidgetsOfASimulatedPlatformComplete() throws Exception {
+        SimulatedPlatform platform = SimulatedPlatform.builder().seed(42L).build();
+        platform.add("ok").appearAfter(50L);
+        final SimulatedButton ok = new SimulatedButton(platform, null, "ok");
+        List<CompletableFuture<Void>> scripts = new ArrayList<CompletableFuture<Void>>();
+        try (ScriptRunner runner = new ScriptRunner()) {
+            for (int i = 0; i < 100; i++) {
+                scripts.add(runner.submit(ok::click));
+            }
+            for (CompletableFuture<Void> script : scripts) {
+                script.get();
+            }
+        }
+        assertEquals(100, platform.getNode("ok").getClicks());
+    }
+
+    @Test(timeout = 10000)
+    public void timeoutOfAScriptBoundsItsActions() throws InterruptedException {
+        SimulatedPlatform platform = SimulatedPlatform.builder().build();
+        final SimulatedButton missing = new SimulatedButton(platform, null, "missing");
+        try (ScriptRunner runner = new ScriptRunner()) {
+            runner.submit(() -> {
+                missing.click();
+                return null;
+            }, 100L).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ObjectNotFoundException);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void cancelledScriptStopsWaiting() throws InterruptedException {
+        SimulatedPlatform platform = SimulatedPlatform.builder().build();
+        final SimulatedButton missing = new SimulatedButton(platform, null, "missing");
+        ScriptRunner runner = new ScriptRunner();
+        CompletableFuture<Void> script = runner.submit(() -> {
+            missing.click();
+            return null;
+        }, 60000L);
+        Thread.sleep(50L);
+        assertTrue(script.cancel(true));
+        try {
+            script.join();
+            fail();
+        } catch (CancellationException e) {
+            // Expected
+        }
+        assertTrue(runner.awaitTermination(5000L));
+    }
+
+    /**
+     * An editable widget recording the values written on it.
+     */
+    private static final class RecordingField extends EditableWidget {
+        /**
+         * Values written on the widget.
+         */
+        private final ConcurrentLinkedQueue<String> written =
+                new ConcurrentLinkedQueue<String>();
+
+        /**
+         * Ctor.
+         */
+        private RecordingField() {
+            super(null);
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            String value = getValueToSet();
+            // Lets the other scripts interleave before the value is written
+            Thread.yield();
+            written.add(value);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.sync;
+
+import org.futon.Testable;
+import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.utils.Waiter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link Synchronizer}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class SynchronizerTest {
+    /**
+     * Settings of the engines under test.
+     */
+    private static final SyncSettings SETTINGS = SyncSettings.inherited()
+            .withTimeout(1000L)
+            .withMaxRetries(3)
+            .withReloadRange(1);
+
+    @Test
+    public void locatesServedByACacheAreNotLearned() {
+        AdaptiveWaitPolicy policy = new AdaptiveWaitPolicy(1, 2.0, 10L);
+        Synchronizer synchronizer = Synchronizer.builder(SETTINGS)
+                .policy(policy)
+                .identity("widget")
+                .build();
+        synchronizer.run(new FixedTarget(true));
+        assertEquals(1000L, policy.budget("widget", 1000L));
+    }
+
+    @Test
+    public void locatesDoneOnThePlatformAreLearned() {
+        AdaptiveWaitPolicy policy = new AdaptiveWaitPolicy(1, 2.0, 10L);
+        Synchronizer synchronizer = Synchronizer.builder(SETTINGS)
+                .policy(policy)
+                .identity("widget")
+                .build();
+        synchronizer.run(new FixedTarget(false));
+        assertEquals(10L, policy.budget("widget", 1000L));
+    }
+
+    @Test
+    public void anyWaiterIsToldTheAttemptAndTheVersionOfTheContainer() {
+        final List<String> pauses = new ArrayList<String>();
+        Waiter waiter = new Waiter() {
+            @Override
+            public void sleep() {
+                pauses.add("sleep");
+            }
+
+            @Override
+            public long version() {
+                return 7L;
+            }
+
+            @Override
+            public long pause(int attempt, long elapsed, long previous, long since,
+                              long remaining) {
+                pauses.add(attempt + "@" + since + " after " + previous);
+                return attempt * 10L;
+            }
+        };
+        Synchronizer synchronizer = Synchronizer.builder(SETTINGS.withTimeout(10000L)
+                                                                    .withReloadRange(10))
+                .waiter(waiter)
+                .build();
+        try {
+            synchronizer.run(new SyncTarget() {
+                @Override
+                public Testable locate() {
+                    return null;
+                }
+
+                @Override
+                public void act(Testable testable) {
+                    // Nothing to do
+                }
+            });
+            fail();
+        } catch (ObjectNotFoundException e) {
+            assertEquals(Arrays.asList("1@7 after 0", "2@7 after 10"), pauses);
+        }
+    }
+
+    /**
+     * A target found at the first attempt.
+     */
+    private static final class FixedTarget implements SyncTarget {
+        /**
+         * {@code true} if the locates are served by a cache.
+         */
+        private final boolean cached;
+
+        /**
+         * Ctor.
+         *
+         * @param cached {@code true} if the locates are served by a cache
+         */
+        private FixedTarget(boolean cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Testable locate() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        public void act(Testable testable) {
+            // Nothing to do
+        }
+
+        @Override
+        public boolean isCached() {
+            return cached;
+        }
+    }
+}
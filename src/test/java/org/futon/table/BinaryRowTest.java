@@ -0,0 +1,116 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the round trip of rows through {@link BinaryRowWriter} and
+ * {@link BinaryRowReader}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class BinaryRowTest {
+
+    @Test
+    public void rowsAreReadBackUnchanged() throws IOException {
+        Path file = Files.createTempFile("futon", ".bin");
+        try {
+            BinaryRowWriter writer = BinaryRowWriter.open(file);
+            writer.write(2, new String[] {"a", null, ""});
+            writer.write(5, new String[0]);
+            writer.close();
+            BinaryRowReader reader = BinaryRowReader.open(file);
+            ResultRow row = reader.read();
+            assertEquals(2, row.getIndex());
+            assertEquals(3, row.size());
+            assertEquals("a", row.getValue(0));
+            assertNull(row.getValue(1));
+            assertEquals("", row.getValue(2));
+            row = reader.read();
+            assertEquals(5, row.getIndex());
+            assertEquals(0, row.size());
+            assertNull(reader.read());
+            reader.close();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void cellLongerThanTheFileIsRejected() throws IOException {
+        Path file = Files.createTempFile("futon", ".bin");
+        try {
+            Files.write(file, corrupted(1, 1024));
+            BinaryRowReader reader = BinaryRowReader.open(file);
+            try {
+                reader.read();
+            } finally {
+                reader.close();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void hugeCellIsRejectedBeforeItIsAllocated() throws IOException {
+        new BinaryRowReader(Channels.newChannel(
+                new ByteArrayInputStream(corrupted(1, Integer.MAX_VALUE)))).read();
+    }
+
+    @Test(expected = IOException.class)
+    public void hugeNumberOfCellsIsRejectedBeforeItIsAllocated() throws IOException {
+        new BinaryRowReader(Channels.newChannel(
+                new ByteArrayInputStream(corrupted(Integer.MAX_VALUE, 0)))).read();
+    }
+
+    /**
+     * Returns a binary table whose first row declares the given lengths.
+     *
+     * @param cells Number of cells of the row
+     * @param length Length of its first cell
+     * @return The bytes of the table
+     */
+    private static byte[] corrupted(int cells, int length) {
+        return ByteBuffer.allocate(16)
+                .putInt(BinaryRowWriter.MAGIC)
+                .putInt(0)
+                .putInt(cells)
+                .putInt(length)
+                .array();
+    }
+}
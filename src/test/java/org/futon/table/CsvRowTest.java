@@ -0,0 +1,120 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of the round trip of rows through {@link CsvRowWriter} and {@link CsvRowReader}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class CsvRowTest {
+
+    @Test
+    public void rowsAreReadBackUnchanged() throws IOException {
+        String[][] rows = {
+                {"plain", "with, comma", "with \"quotes\"", "two\r\nlines", "\u00e0\u00e8\u00ec"},
+                {null, "", null},
+                {},
+                {""},
+                {null}
+        };
+        int[] indexes = {0, 3, 4, 10, 11};
+        CsvRowReader reader = reader(write(indexes, rows));
+        for (int i = 0; i < rows.length; i++) {
+            ResultRow row = reader.read();
+            assertEquals(indexes[i], row.getIndex());
+            assertArrayEquals(rows[i], values(row));
+        }
+        assertNull(reader.read());
+        reader.close();
+    }
+
+    @Test
+    public void nullAndEmptyCellsAreWrittenDifferently() throws IOException {
+        String csv = new String(write(new int[] {7}, new String[][] {{null, ""}}),
+                                StandardCharsets.UTF_8);
+        assertEquals("7,,\"\"\r\n", csv);
+    }
+
+    @Test(expected = IOException.class)
+    public void lineWithoutIndexIsRejected() throws IOException {
+        reader("a,b\r\n".getBytes(StandardCharsets.UTF_8)).read();
+    }
+
+    /**
+     * Writes some rows in CSV format.
+     *
+     * @param indexes Indexes of the rows
+     * @param rows Values of the rows
+     * @return The bytes written
+     * @throws IOException If the rows can not be written
+     */
+    private static byte[] write(int[] indexes, String[][] rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(out));
+        for (int i = 0; i < rows.length; i++) {
+            writer.write(indexes[i], rows[i]);
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Opens a reader on some bytes.
+     *
+     * @param bytes The bytes
+     * @return The reader
+     */
+    private static CsvRowReader reader(byte[] bytes) {
+        return new CsvRowReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Returns the values of the cells of a row.
+     *
+     * @param row A row
+     * @return The values of the cells
+     */
+    private static String[] values(ResultRow row) {
+        String[] values = new String[row.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.getValue(i);
+        }
+        return values;
+    }
+}
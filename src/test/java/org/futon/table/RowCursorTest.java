@@ -0,0 +1,165 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import org.futon.Testable;
+import org.futon.widgets.Table;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests of {@link RowCursor}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class RowCursorTest {
+
+    @Test
+    public void rowCountIsReadAfterTheNextPageIsReloaded() {
+        PagedTable table = new PagedTable(new String[][][] {
+                {{"a"}, {"b"}, {"c"}},
+                {{"d"}, {"e"}, {"f"}, {"g"}, {"h"}}
+        });
+        List<String> values = new ArrayList<String>();
+        RowCursor cursor = table.rows(2);
+        while (cursor.hasNext()) {
+            values.add(cursor.next().getValues()[0]);
+        }
+        assertEquals("[a, b, c, d, e, f, g, h]", values.toString());
+        assertEquals(1, table.reloads);
+    }
+
+    @Test
+    public void shrinkingPageIsReadUpToItsNewRowCount() {
+        PagedTable table = new PagedTable(new String[][][] {
+                {{"a"}, {"b"}, {"c"}, {"d"}},
+                {{"e"}}
+        });
+        List<String> values = new ArrayList<String>();
+        RowCursor cursor = table.rows(3);
+        while (cursor.hasNext()) {
+            values.add(cursor.next().getValues()[0]);
+        }
+        assertEquals("[a, b, c, d, e]", values.toString());
+    }
+
+    @Test
+    public void findStopsFetchingAtTheFirstMatchingRow() {
+        PagedTable table = new PagedTable(new String[][][] {
+                {{"a"}, {"b"}, {"c"}},
+                {{"d"}, {"e"}}
+        });
+        RowCursor cursor = table.rows(1);
+        Row row = cursor.find(r -> "b".equals(r.getValues()[0]));
+        assertEquals(1, row.getIndex());
+        assertEquals(0, table.reloads);
+        assertEquals("d", cursor.find(r -> r.getValues()[0].compareTo("c") > 0).getValues()[0]);
+        assertNull(cursor.find(r -> "a".equals(r.getValues()[0])));
+    }
+
+    /**
+     * A paginated table whose handle on the platform sees a new page only after it
+     * was reloaded.
+     */
+    private static final class PagedTable extends Table {
+        /**
+         * The rows of every page.
+         */
+        private final String[][][] pages;
+        /**
+         * Page shown on the platform.
+         */
+        private int shown;
+        /**
+         * Page seen by the table since its last reload.
+         */
+        private int loaded;
+        /**
+         * Number of reloads done on the platform.
+         */
+        private int reloads;
+
+        /**
+         * Ctor.
+         *
+         * @param pages The rows of every page
+         */
+        private PagedTable(String[][][] pages) {
+            this.pages = pages;
+        }
+
+        @Override
+        protected int readRowCount() {
+            return pages[loaded].length;
+        }
+
+        @Override
+        protected int readColumnCount() {
+            return 1;
+        }
+
+        @Override
+        protected String readCellValue(int row, int col) {
+            return pages[loaded][row][col];
+        }
+
+        @Override
+        protected Paging getPaging() {
+            return Paging.PAGINATED;
+        }
+
+        @Override
+        protected boolean showNextPage() {
+            if (shown + 1 >= pages.length) {
+                return false;
+            }
+            shown++;
+            return true;
+        }
+
+        @Override
+        protected void doReload() {
+            loaded = shown;
+            reloads++;
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            // Nothing to do
+        }
+    }
+}
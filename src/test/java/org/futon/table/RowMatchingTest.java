@@ -0,0 +1,93 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link RowMatching}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class RowMatchingTest {
+
+    @Test
+    public void unchangedRowsMatchByPosition() {
+        RowMatching matching = RowMatching.of(new long[] {1L, 2L, 3L}, new long[] {1L, 2L, 3L});
+        assertEquals(0, matching.getSource(0));
+        assertEquals(2, matching.getSource(2));
+        assertEquals("[]", Arrays.toString(matching.getAdded()));
+        assertEquals("[]", Arrays.toString(matching.getRemoved()));
+        assertEquals("[]", Arrays.toString(matching.getModified()));
+    }
+
+    @Test
+    public void rowInsertedAtTheTopIsTheOnlyOneAdded() {
+        RowMatching matching = RowMatching.of(new long[] {1L, 2L, 3L},
+                                              new long[] {9L, 1L, 2L, 3L});
+        assertEquals(-1, matching.getSource(0));
+        assertEquals(0, matching.getSource(1));
+        assertEquals(2, matching.getSource(3));
+        assertEquals("[0]", Arrays.toString(matching.getAdded()));
+        assertEquals("[]", Arrays.toString(matching.getRemoved()));
+        assertEquals("[]", Arrays.toString(matching.getModified()));
+    }
+
+    @Test
+    public void rowDeletedInTheMiddleIsTheOnlyOneRemoved() {
+        RowMatching matching = RowMatching.of(new long[] {1L, 2L, 3L}, new long[] {1L, 3L});
+        assertEquals(2, matching.getSource(1));
+        assertEquals("[]", Arrays.toString(matching.getAdded()));
+        assertEquals("[1]", Arrays.toString(matching.getRemoved()));
+        assertEquals("[]", Arrays.toString(matching.getModified()));
+    }
+
+    @Test
+    public void rowChangedInPlaceIsModified() {
+        RowMatching matching = RowMatching.of(new long[] {1L, 2L, 3L},
+                                              new long[] {1L, 7L, 3L});
+        assertEquals(-1, matching.getSource(1));
+        assertEquals("[]", Arrays.toString(matching.getAdded()));
+        assertEquals("[]", Arrays.toString(matching.getRemoved()));
+        assertEquals("[1]", Arrays.toString(matching.getModified()));
+    }
+
+    @Test
+    public void duplicatedRowsAreMatchedOnce() {
+        RowMatching matching = RowMatching.of(new long[] {5L, 5L}, new long[] {4L, 5L, 5L, 5L});
+        assertEquals(-1, matching.getSource(0));
+        assertEquals(1, matching.getSource(1));
+        assertEquals(0, matching.getSource(2));
+        assertEquals(-1, matching.getSource(3));
+        assertEquals("[0, 3]", Arrays.toString(matching.getAdded()));
+        assertEquals("[]", Arrays.toString(matching.getRemoved()));
+        assertEquals("[]", Arrays.toString(matching.getModified()));
+    }
+}
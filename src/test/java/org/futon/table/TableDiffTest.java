@@ -0,0 +1,126 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link TableDiff}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableDiffTest {
+
+    @Test
+    public void rowInsertedAtTheTopIsTheOnlyDifference() throws IOException {
+        List<String> differences = new ArrayList<String>();
+        long count = TableDiff.diff(export("a", "b", "c"), export("x", "a", "b", "c"),
+                                    new Recorder(differences));
+        assertEquals(1L, count);
+        assertEquals(Arrays.asList("added 0 x"), differences);
+    }
+
+    @Test
+    public void removedModifiedAndAddedRowsAreNotified() throws IOException {
+        List<String> differences = new ArrayList<String>();
+        long count = TableDiff.diff(export("a", "b", "c"), export("x", "a", "d"),
+                                    new Recorder(differences));
+        assertEquals(3L, count);
+        assertEquals(Arrays.asList("added 0 x", "removed 1 b", "modified 2 c -> d"),
+                     differences);
+    }
+
+    @Test
+    public void equalExportsHaveNoDifferences() throws IOException {
+        List<String> differences = new ArrayList<String>();
+        assertEquals(0L, TableDiff.diff(export("a", "b"), export("a", "b"),
+                                        new Recorder(differences)));
+        assertEquals(0, differences.size());
+    }
+
+    /**
+     * Returns a CSV export of a table with a single column.
+     *
+     * @param values The values of the column
+     * @return The export
+     * @throws IOException If the export can not be written
+     */
+    private static TableDiff.Export export(String... values) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(out));
+        for (int i = 0; i < values.length; i++) {
+            writer.write(i, new String[] {values[i]});
+        }
+        writer.close();
+        byte[] bytes = out.toByteArray();
+        return () -> new CsvRowReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * A listener recording the differences as strings.
+     */
+    private static final class Recorder implements TableDiff.Listener {
+        /**
+         * The differences.
+         */
+        private final List<String> differences;
+
+        /**
+         * Ctor.
+         *
+         * @param differences The differences
+         */
+        private Recorder(List<String> differences) {
+            this.differences = differences;
+        }
+
+        @Override
+        public void added(ResultRow row) {
+            differences.add("added " + row.getIndex() + " " + row.getValue(0));
+        }
+
+        @Override
+        public void removed(ResultRow row) {
+            differences.add("removed " + row.getIndex() + " " + row.getValue(0));
+        }
+
+        @Override
+        public void modified(ResultRow before, ResultRow after) {
+            differences.add("modified " + after.getIndex() + " " + before.getValue(0) + " -> "
+                            + after.getValue(0));
+        }
+    }
+}
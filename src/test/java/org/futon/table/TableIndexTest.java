@@ -0,0 +1,107 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import org.futon.simulation.SimulatedNode;
+import org.futon.simulation.SimulatedPlatform;
+import org.futon.simulation.SimulatedTable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link TableIndex} and of the lookups of rows of a table by the value of a
+ * column.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableIndexTest {
+    /**
+     * Orders, by id and state.
+     */
+    private static final String[][] ORDERS = {
+            {"o1", "open"}, {"o2", "closed"}, {"o3", "open"}, {"o4", null}
+    };
+
+    @Test
+    public void rowsAreFoundByTheValueOfTheIndexedColumn() {
+        TableIndex index = TableIndex.build(TableSnapshot.of(0, 0, 2, ORDERS), 1);
+        assertEquals(1, index.getColumn());
+        assertEquals(0, index.findRow("open"));
+        assertEquals(1, index.findRow("closed"));
+        assertEquals(3, index.findRow(null));
+        assertEquals(-1, index.findRow("lost"));
+        assertArrayEquals(new int[] {0, 2}, index.findRows("open"));
+        assertEquals(0, index.findRows("lost").length);
+    }
+
+    @Test
+    public void rowsOfASnapshotAreNumberedLikeTheTable() {
+        TableIndex index = TableIndex.build(TableSnapshot.of(10, 0, 2, ORDERS), 0);
+        assertEquals(12, index.findRow("o3"));
+    }
+
+    @Test
+    public void emptySnapshotHasNoRows() {
+        TableIndex index = TableIndex.build(TableSnapshot.of(0, 0, 0, new String[0][]), 3);
+        assertEquals(-1, index.findRow("o1"));
+        assertEquals(0, index.findRows(null).length);
+    }
+
+    @Test
+    public void indexesAreBuiltFromASingleReadAndReused() {
+        SimulatedPlatform platform = SimulatedPlatform.builder().build();
+        platform.add("orders").cells(ORDERS);
+        platform.add("copy").cells(ORDERS);
+        long start = platform.getCalls();
+        new SimulatedTable(platform, null, "copy").snapshot();
+        long snapshotCalls = platform.getCalls() - start;
+
+        SimulatedTable orders = new SimulatedTable(platform, null, "orders");
+        start = platform.getCalls();
+        TableIndex[] indexes = orders.index(0, 1);
+        assertEquals(snapshotCalls, platform.getCalls() - start);
+        assertEquals(2, indexes[0].findRow("o3"));
+        start = platform.getCalls();
+        assertEquals(1, orders.findRow(1, "closed"));
+        assertEquals(3, orders.findRow(0, "o4"));
+        assertEquals(0L, platform.getCalls() - start);
+    }
+
+    @Test
+    public void reloadInvalidatesTheIndexes() {
+        SimulatedPlatform platform = SimulatedPlatform.builder().build();
+        SimulatedNode node = platform.add("orders").cells(ORDERS);
+        SimulatedTable orders = new SimulatedTable(platform, null, "orders");
+        assertEquals(-1, orders.findRow(0, "o5"));
+        node.cells(new String[][] {{"o5", "open"}});
+        assertEquals(-1, orders.findRow(0, "o5"));
+        orders.reload();
+        assertEquals(0, orders.findRow(0, "o5"));
+        assertEquals(-1, orders.findRow(0, "o1"));
+    }
+}
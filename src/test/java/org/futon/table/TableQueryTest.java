@@ -0,0 +1,140 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.table;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link TableQuery}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableQueryTest {
+    /**
+     * Orders, by id, state and amount, starting at row 5 of the table.
+     */
+    private static final TableSnapshot ORDERS = TableSnapshot.of(5, 0, 3, new String[][] {
+            {"o1", "open", "10.5"},
+            {"o2", "closed", "3"},
+            {"o3", "open", null},
+            {"o4", "lost", " "},
+            {"o5", "open", "2"},
+            {"o6", "closed", "4"}
+    });
+
+    @Test
+    public void filteredSortedAndProjectedRowsKeepTheirTableIndex() {
+        List<ResultRow> rows = TableQuery.from(ORDERS)
+                .where(1, "open"::equals)
+                .orderBy(0, Comparator.<String>reverseOrder())
+                .select(0)
+                .rows();
+        assertEquals(3, rows.size());
+        assertEquals(9, rows.get(0).getIndex());
+        assertEquals("o5", rows.get(0).getValue(0));
+        assertEquals(1, rows.get(0).size());
+        assertEquals(7, rows.get(1).getIndex());
+        assertEquals(5, rows.get(2).getIndex());
+    }
+
+    @Test
+    public void rowsAreSortedOnManyKeys() {
+        int[] indexes = TableQuery.from(ORDERS)
+                .orderBy(1)
+                .orderBy(0, Comparator.<String>reverseOrder())
+                .indexes();
+        assertArrayEquals(new int[] {10, 6, 8, 9, 7, 5}, indexes);
+    }
+
+    @Test
+    public void groupsAreAggregatedInOrderOfFirstAppearance() {
+        Map<String, Long> counts = TableQuery.from(ORDERS).countBy(1);
+        assertEquals(Arrays.asList("open", "closed", "lost"),
+                     new ArrayList<String>(counts.keySet()));
+        assertEquals(Long.valueOf(3L), counts.get("open"));
+        assertEquals(Long.valueOf(2L), counts.get("closed"));
+        Map<String, Double> sums = TableQuery.from(ORDERS).sumBy(1, 2);
+        assertEquals(Double.valueOf(12.5), sums.get("open"));
+        assertEquals(Double.valueOf(7.0), sums.get("closed"));
+        assertEquals(Double.valueOf(0.0), sums.get("lost"));
+    }
+
+    @Test
+    public void aggregationsApplyToTheFilteredRows() {
+        TableQuery notOpen = TableQuery.from(ORDERS).where(1, state -> !"open".equals(state));
+        assertEquals(3, notOpen.count());
+        assertEquals(Arrays.asList("closed", "lost"), notOpen.distinct(1));
+        assertEquals(Double.valueOf(7.0), notOpen.sumBy(1, 2).get("closed"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void sumOfValuesThatAreNotNumbersFails() {
+        TableQuery.from(ORDERS).sumBy(1, 0);
+    }
+
+    @Test
+    public void largeSnapshotsAreEvaluatedInParallelWithTheSameResult() {
+        int size = 20000;
+        String[][] cells = new String[size][];
+        for (int i = 0; i < size; i++) {
+            cells[i] = new String[] {"g" + (i % 7), String.valueOf(i % 100)};
+        }
+        TableSnapshot snapshot = TableSnapshot.of(0, 0, 2, cells);
+        TableQuery query = TableQuery.from(snapshot)
+                .where(1, value -> Integer.parseInt(value) < 50)
+                .orderBy(0);
+        List<Integer> expected = new ArrayList<Integer>();
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (int group = 0; group < 7; group++) {
+            for (int i = 0; i < size; i++) {
+                if (i % 7 == group && i % 100 < 50) {
+                    expected.add(i);
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (i % 100 < 50) {
+                counts.merge("g" + (i % 7), 1L, Long::sum);
+            }
+        }
+        int[] indexes = query.indexes();
+        assertEquals(expected.size(), indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            assertEquals(expected.get(i).intValue(), indexes[i]);
+        }
+        assertEquals(counts, query.countBy(0));
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.widgets;
+
+import org.futon.Testable;
+import org.futon.actions.Verifiable;
+import org.futon.sync.ExecutionContext;
+import org.futon.sync.SyncSettings;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the checks of existence of widgets.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExistsTest {
+
+    @Test(timeout = 5000)
+    public void existsInsideALongerContextSpendsOnlyTheExistsBudget() {
+        final Missing missing = new Missing(SyncSettings.inherited()
+                                                    .withExistsTimeout(100L)
+                                                    .withMaxRetries(1000000));
+        long start = System.nanoTime();
+        boolean exists = new ExecutionContext(10000L, () -> { }, null)
+                .execute(missing::exists);
+        assertFalse(exists);
+        assertTrue((System.nanoTime() - start) / 1000000L < 2000L);
+    }
+
+    @Test(timeout = 5000)
+    public void existsInsideAShorterContextSpendsOnlyTheContextBudget() {
+        final Missing missing = new Missing(SyncSettings.inherited()
+                                                    .withExistsTimeout(10000L)
+                                                    .withMaxRetries(1000000));
+        long start = System.nanoTime();
+        boolean exists = new ExecutionContext(100L, () -> { }, null)
+                .execute(missing::exists);
+        assertFalse(exists);
+        assertTrue((System.nanoTime() - start) / 1000000L < 2000L);
+    }
+
+    @Test(timeout = 5000)
+    public void defaultWaitUntilAbsentPollsUntilTheWidgetDisappears() {
+        final AtomicInteger checks = new AtomicInteger();
+        Verifiable disappearing = () -> checks.incrementAndGet() <= 3;
+        assertTrue(disappearing.waitUntilAbsent());
+        assertEquals(4, checks.get());
+    }
+
+    /**
+     * A widget never found.
+     */
+    private static final class Missing extends Widget {
+        /**
+         * Ctor.
+         *
+         * @param settings The synchronization settings of the widget
+         */
+        private Missing(SyncSettings settings) {
+            super(null, settings);
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return null;
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            // Nothing to do
+        }
+    }
+}
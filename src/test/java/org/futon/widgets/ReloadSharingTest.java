@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.widgets;
+
+import org.futon.Testable;
+import org.futon.actions.Reloadable;
+import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.sync.ExecutionContext;
+import org.futon.sync.SyncSettings;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of the sharing of the reloads of a container among the widgets inside it.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class ReloadSharingTest {
+
+    @Test(timeout = 10000)
+    public void concurrentWidgetsReloadAStaleContainerOnce() throws InterruptedException {
+        final SlowSection section = new SlowSection();
+        final List<Probe> probes = new ArrayList<Probe>();
+        for (int i = 0; i < 8; i++) {
+            probes.add(new Probe(section, true, SyncSettings.inherited()));
+        }
+        section.reload();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (final Probe probe : probes) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    probe.click();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, section.reloads.get());
+    }
+
+    @Test
+    public void requestsWithinTheReloadWindowShareTheLastReload() {
+        SlowSection section = new SlowSection();
+        Probe missing = new Probe(section, false,
+                                  SyncSettings.inherited().withMaxRetries(4).withReloadRange(1));
+        try {
+            new ExecutionContext(10000L, () -> { }, null).execute(() -> {
+                missing.click();
+                return null;
+            });
+            fail();
+        } catch (ObjectNotFoundException e) {
+            // The first request reloads the section, the following ones share it
+            assertEquals(1, section.reloads.get());
+        }
+    }
+
+    /**
+     * A section whose reloads on the platform take some time.
+     */
+    private static final class SlowSection extends Section {
+        /**
+         * Number of reloads done on the platform.
+         */
+        private final AtomicInteger reloads = new AtomicInteger();
+
+        /**
+         * Ctor.
+         */
+        private SlowSection() {
+            super(null);
+        }
+
+        @Override
+        protected void doReload() {
+            reloads.incrementAndGet();
+            try {
+                Thread.sleep(20L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            // Nothing to do
+        }
+    }
+
+    /**
+     * A widget inside a section, found or never found.
+     */
+    private static final class Probe extends ClickableWidget {
+        /**
+         * {@code true} if the widget is found.
+         */
+        private final boolean found;
+
+        /**
+         * Ctor.
+         *
+         * @param container The container of the widget
+         * @param found {@code true} if the widget is found
+         * @param settings The synchronization settings of the widget
+         */
+        private Probe(Reloadable container, boolean found, SyncSettings settings) {
+            super(container, settings);
+            this.found = found;
+        }
+
+        @Override
+        protected Testable findTestable() {
+            if (!found) {
+                throw new ObjectNotFoundException("Not found");
+            }
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            // Nothing to do
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.widgets;
+
+import org.futon.Testable;
+import org.futon.exceptions.ObjectNotFoundException;
+import org.futon.sync.ExecutionContext;
+import org.futon.table.TableChanges;
+import org.futon.table.TableSnapshot;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of the incremental refresh of the snapshot of a {@link Table}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableRefreshTest {
+
+    @Test
+    public void tableWithoutFingerprintsIsReadOnce() {
+        ContentTable table = new ContentTable(false, "a", "b", "c");
+        table.snapshot();
+        table.content = new String[] {"x", "a", "d"};
+        table.reads = 0;
+        table.rowsRead = 0;
+        TableChanges changes = table.refresh();
+        assertEquals(1, table.reads);
+        assertEquals(3, table.rowsRead);
+        assertEquals("[0]", Arrays.toString(changes.getAdded()));
+        assertEquals("[1]", Arrays.toString(changes.getRemoved()));
+        assertEquals("[2]", Arrays.toString(changes.getModified()));
+        assertEquals("d", changes.getSnapshot().getCellValue(2, 0));
+    }
+
+    @Test
+    public void tableWithFingerprintsReadsOnlyTheChangedRows() {
+        ContentTable table = new ContentTable(true, "a", "b", "c");
+        table.snapshot();
+        table.content = new String[] {"x", "a", "d"};
+        table.reads = 0;
+        table.rowsRead = 0;
+        TableChanges changes = table.refresh();
+        assertEquals(2, table.reads);
+        assertEquals(2, table.rowsRead);
+        assertEquals("[0]", Arrays.toString(changes.getAdded()));
+        assertEquals("[1]", Arrays.toString(changes.getRemoved()));
+        assertEquals("[2]", Arrays.toString(changes.getModified()));
+        TableSnapshot snapshot = changes.getSnapshot();
+        assertEquals("x", snapshot.getCellValue(0, 0));
+        assertEquals("a", snapshot.getCellValue(1, 0));
+        assertEquals("d", snapshot.getCellValue(2, 0));
+    }
+
+    @Test(expected = ObjectNotFoundException.class)
+    public void rowsMissingFromTheChangedRangeFailTheRefresh() {
+        ContentTable table = new ContentTable(true, "a", "b");
+        table.snapshot();
+        table.content = new String[] {"a", "c"};
+        table.shortReads = true;
+        new ExecutionContext(50L, () -> { }, null).execute(table::refresh);
+    }
+
+    /**
+     * A table with a single column, counting the reads of its rows.
+     */
+    private static final class ContentTable extends Table {
+        /**
+         * {@code true} if the platform computes the fingerprints of the rows.
+         */
+        private final boolean fingerprints;
+        /**
+         * The values of the single column.
+         */
+        private String[] content;
+        /**
+         * {@code true} if the reads of the rows return one row less than asked.
+         */
+        private boolean shortReads;
+        /**
+         * Number of reads of ranges of rows.
+         */
+        private int reads;
+        /**
+         * Number of rows read.
+         */
+        private int rowsRead;
+
+        /**
+         * Ctor.
+         *
+         * @param fingerprints {@code true} if the platform computes the fingerprints
+         * @param content The values of the single column
+         */
+        private ContentTable(boolean fingerprints, String... content) {
+            this.fingerprints = fingerprints;
+            this.content = content;
+        }
+
+        @Override
+        protected int readRowCount() {
+            return content.length;
+        }
+
+        @Override
+        protected int readColumnCount() {
+            return 1;
+        }
+
+        @Override
+        protected String readCellValue(int row, int col) {
+            return content[row];
+        }
+
+        @Override
+        protected String[][] readRows(Testable testable, int fromRow, int rowCount,
+                                      int fromCol, int colCount) {
+            String[][] rows = super.readRows(testable, fromRow, rowCount, fromCol, colCount);
+            if (shortReads) {
+                rows = Arrays.copyOf(rows, rows.length - 1);
+            }
+            reads++;
+            rowsRead += rows.length;
+            return rows;
+        }
+
+        @Override
+        protected long[] readFingerprints(Testable testable) {
+            if (!fingerprints) {
+                return super.readFingerprints(testable);
+            }
+            long[] result = new long[content.length];
+            for (int i = 0; i < content.length; i++) {
+                result[i] = TableSnapshot.fingerprint(new String[] {content[i]});
+            }
+            return result;
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            // Nothing to do
+        }
+    }
+}
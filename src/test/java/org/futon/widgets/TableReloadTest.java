@@ -0,0 +1,125 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.widgets;
+
+import org.futon.Testable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests of the direct reads of a {@link Table} after it was reloaded.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class TableReloadTest {
+
+    @Test
+    public void cellReadAfterAReloadSeesTheNewContent() {
+        ChangingTable table = new ChangingTable(new String[][] {{"a"}}, new String[][] {{"b"}});
+        assertEquals("a", table.getCellValue(0, 0));
+        table.reload();
+        assertEquals("b", table.getCellValue(0, 0));
+        assertFalse(table.isDirty());
+        assertEquals(1, table.reloads);
+    }
+
+    @Test
+    public void cellReadAfterAReloadIsNotServedByTheLastSnapshot() {
+        ChangingTable table = new ChangingTable(new String[][] {{"a"}}, new String[][] {{"b"}});
+        table.snapshot();
+        table.reload();
+        assertEquals("b", table.getCellValue(0, 0));
+    }
+
+    @Test
+    public void countsReadAfterAReloadSeeTheNewContent() {
+        ChangingTable table = new ChangingTable(new String[][] {{"a"}},
+                                                new String[][] {{"b", "c"}, {"d", "e"}});
+        assertEquals(1, table.getRowCount());
+        assertEquals(1, table.getColumnCount());
+        table.reload();
+        assertEquals(2, table.getRowCount());
+        assertEquals(2, table.getColumnCount());
+        assertEquals(1, table.reloads);
+    }
+
+    /**
+     * A table whose handle on the platform sees the next content only after it was
+     * reloaded. Its cells are read without synchronizing on the table.
+     */
+    private static final class ChangingTable extends Table {
+        /**
+         * The content of the table at every reload.
+         */
+        private final String[][][] contents;
+        /**
+         * Number of reloads done on the platform.
+         */
+        private int reloads;
+
+        /**
+         * Ctor.
+         *
+         * @param contents The content of the table at every reload
+         */
+        private ChangingTable(String[][]... contents) {
+            this.contents = contents;
+        }
+
+        @Override
+        protected int readRowCount() {
+            return contents[reloads].length;
+        }
+
+        @Override
+        protected int readColumnCount() {
+            return contents[reloads][0].length;
+        }
+
+        @Override
+        protected String readCellValue(int row, int col) {
+            return contents[reloads][row][col];
+        }
+
+        @Override
+        protected void doReload() {
+            reloads++;
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            // Nothing to do
+        }
+    }
+}
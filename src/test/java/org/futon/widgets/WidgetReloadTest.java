@@ -0,0 +1,147 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015 Riccardo Cardin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.futon.widgets;
+
+import org.futon.Testable;
+import org.futon.actions.Reloadable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the lazy reload of the containers by {@link Widget}.
+ *
+ * @author Riccardo Cardin
+ * @version 1.0
+ * @since 1.0
+ */
+public class WidgetReloadTest {
+
+    @Test
+    public void reloadingAContainerMarksTheNestedOnesAsStale() {
+        CountingSection outer = new CountingSection(null);
+        CountingSection inner = new CountingSection(outer);
+        outer.reload();
+        assertTrue(outer.isDirty());
+        assertTrue(inner.isDirty());
+        inner.click();
+        assertFalse(outer.isDirty());
+        assertFalse(inner.isDirty());
+        assertEquals(1, outer.reloads);
+        assertEquals(1, inner.reloads);
+    }
+
+    @Test
+    public void nestedContainersAreReloadedOnceForEveryReloadOfTheOuterOne() {
+        CountingSection outer = new CountingSection(null);
+        CountingSection middle = new CountingSection(outer);
+        CountingSection inner = new CountingSection(middle);
+        outer.reload();
+        inner.click();
+        inner.click();
+        assertEquals(1, middle.reloads);
+        assertEquals(1, inner.reloads);
+        middle.reload();
+        inner.click();
+        assertEquals(1, outer.reloads);
+        assertEquals(2, middle.reloads);
+        assertEquals(2, inner.reloads);
+    }
+
+    @Test
+    public void reloadingANestedContainerDoesNotMarkTheOuterOneAsStale() {
+        CountingSection outer = new CountingSection(null);
+        CountingSection inner = new CountingSection(outer);
+        inner.reload();
+        assertFalse(outer.isDirty());
+        assertTrue(inner.isDirty());
+        inner.click();
+        assertEquals(0, outer.reloads);
+        assertEquals(1, inner.reloads);
+    }
+
+    @Test
+    public void widgetCreatedAfterAReloadOfItsContainerIsNotStale() {
+        CountingSection outer = new CountingSection(null);
+        outer.reload();
+        outer.click();
+        CountingSection inner = new CountingSection(outer);
+        assertFalse(inner.isDirty());
+        inner.click();
+        assertEquals(0, inner.reloads);
+    }
+
+    @Test
+    public void overridingReloadAndCallingItKeepsTheLazyReload() {
+        final int[] requests = new int[1];
+        CountingSection section = new CountingSection(null) {
+            @Override
+            public void reload() {
+                requests[0]++;
+                super.reload();
+            }
+        };
+        section.reload();
+        section.click();
+        assertEquals(1, requests[0]);
+        assertEquals(1, section.reloads);
+    }
+
+    /**
+     * A section counting its reloads on the platform.
+     */
+    private static class CountingSection extends Section {
+        /**
+         * Number of reloads done on the platform.
+         */
+        private int reloads;
+
+        /**
+         * Ctor.
+         *
+         * @param container The container of the section (it can be {@code null})
+         */
+        private CountingSection(Reloadable container) {
+            super(container);
+        }
+
+        @Override
+        protected void doReload() {
+            reloads++;
+        }
+
+        @Override
+        protected Testable findTestable() {
+            return new Testable() {
+            };
+        }
+
+        @Override
+        protected void doOnTestable(Testable testable) {
+            // Nothing to do
+        }
+    }
+}